@@ -1,22 +1,29 @@
 package io.launchowl.viewvalidation.sampleapp;
 
+import android.arch.lifecycle.LifecycleRegistry;
+import android.arch.lifecycle.LifecycleRegistryOwner;
 import android.support.design.widget.TextInputLayout;
 import android.support.v7.app.AppCompatActivity;
 
 import android.os.Bundle;
 import android.text.Editable;
-import android.text.TextUtils;
+import android.util.Log;
 import android.text.TextWatcher;
 import android.view.View;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.TextView;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
 
+import io.launchowl.viewvalidationlibrary.ConditionFuture;
+import io.launchowl.viewvalidationlibrary.Conditions;
 import io.launchowl.viewvalidationlibrary.Criteria;
+import io.launchowl.viewvalidationlibrary.FrameBatchDispatcher;
+import io.launchowl.viewvalidationlibrary.InMemoryValidationMetrics;
+import io.launchowl.viewvalidationlibrary.IncrementalCondition;
 import io.launchowl.viewvalidationlibrary.Observer;
+import io.launchowl.viewvalidationlibrary.ValidationMetrics;
 import io.launchowl.viewvalidationlibrary.Validator;
 import io.launchowl.viewvalidationlibrary.ValidatorSet;
 
@@ -24,11 +31,25 @@ import io.launchowl.viewvalidationlibrary.ValidatorSet;
  * This Activity demonstrates validating views using the
  * {@link Validator} class.
  */
-public class LoginActivity extends AppCompatActivity {
+public class LoginActivity extends AppCompatActivity implements LifecycleRegistryOwner {
+    private static final String TAG = "LoginActivity";
+
+    // AppCompatActivity doesn't provide a Lifecycle yet, so the validators are bound to this one.
+    private final LifecycleRegistry lifecycleRegistry = new LifecycleRegistry(this);
+
+    // Bits of the failed conditions bitmask delivered by userNameCompliesValidator.
+    private static final long INVALID_CHARACTERS = 1;
+    private static final long MISSING_FRUIT = 1 << 1;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+
+        // Measure validation in debug builds, the measurements are logged in onDestroy().
+        if (BuildConfig.DEBUG && !(ValidationMetrics.getDefault() instanceof InMemoryValidationMetrics)) {
+            ValidationMetrics.setDefault(new InMemoryValidationMetrics());
+        }
+
         setContentView(R.layout.activity_login);
 
         /* Calling TextInputLayout.setErrorEnabled(boolean enabled) prevents the
@@ -43,6 +64,20 @@ public class LoginActivity extends AppCompatActivity {
         initFormValidation();
     }
 
+    @Override
+    public LifecycleRegistry getLifecycle() {
+        return this.lifecycleRegistry;
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+
+        if (ValidationMetrics.getDefault() instanceof InMemoryValidationMetrics) {
+            Log.d(TAG, ((InMemoryValidationMetrics) ValidationMetrics.getDefault()).dump());
+        }
+    }
+
     /*
      * Setup the form validation
      */
@@ -56,26 +91,64 @@ public class LoginActivity extends AppCompatActivity {
          * a response in <=1500ms to simulate querying a remote service.
          */
         EditText userNameEditText = (EditText) findViewById(R.id.user_name);
+
+        /*
+         * Make sure the username doesn't contain special characters. The condition updates itself
+         * from each edit instead of rescanning the username, so it must watch the EditText before
+         * the watcher that requests validation is added.
+         */
+        final IncrementalCondition validCharactersCondition =
+                Conditions.onlyCharactersIncremental(Conditions.LETTERS_AND_DIGITS);
+        userNameEditText.addTextChangedListener(validCharactersCondition);
+
+        /*
+         * The character check is cheap, so it is declared with a low cost and fail-fast is
+         * enabled. A username with invalid characters is never sent to the UserRepository.
+         */
         final Validator<EditText> userNameAvailableValidator = new Validator<EditText>(new Criteria<EditText>(userNameEditText)
-            .asyncTest(new Criteria.AsyncCondition<EditText>() {
+            .failFast(true)
+            .test(validCharactersCondition, 1)
+            .asyncTest(new Criteria.FutureCondition<EditText>() {
 
+                /*
+                 * Start the lookup on the main thread and return right away. No worker thread
+                 * waits for the UserRepository, which answers through a callback.
+                 */
                 @Override
-                protected void evaluate(EditText view) {
+                protected ConditionFuture evaluateFuture(EditText view) {
+                    final ConditionFuture availability = new ConditionFuture();
+
+                    // Stop the lookup early if the username changes before the response arrives.
                     UserRepository userRepository = new UserRepository();
-                    userRepository.getUser(view.getText().toString(), new UserRepository.OnuserRetrievedListener() {
+                    userRepository.getUser(view.getText().toString(), getCancellationToken(), new UserRepository.OnuserRetrievedListener() {
                         @Override
                         public void onUserRetrieved(User user) {
                             // The username is available (returns true) if no user is found.
-                            complete(user == null);
+                            availability.complete(user == null);
                         }
                     });
+
+                    return availability;
                 }
 
                 @Override
                 protected void onCancelled() {
                     resetViews();
                 }
-            })
+
+                /*
+                 * Remember the availability of the last 50 usernames for a minute, so deleting
+                 * back to a username that was already checked doesn't query the UserRepository.
+                 * If the UserRepository doesn't answer within 5 seconds, report that the
+                 * availability is unknown rather than leaving the status empty.
+                 */
+            }.memoize(new Criteria.KeyExtractor<EditText>() {
+                @Override
+                public Object extractKey(EditText view) {
+                    return view.getText().toString();
+                }
+            }, 50, 1, TimeUnit.MINUTES)
+             .timeout(5, TimeUnit.SECONDS, Validator.ValidationResult.Unknown))
         );
 
         /*
@@ -84,12 +157,20 @@ public class LoginActivity extends AppCompatActivity {
         Observer<TextView> userNameStatusObserver = new Observer<TextView>((TextView) findViewById(R.id.username_status)) {
             @Override
             protected void onValidationComplete(TextView view, Validator.ValidationResult validationResult) {
-                // Display whether the username is "Available" or "Not available".
-                view.setText(
-                        validationResult == Validator.ValidationResult.Valid
-                                ? getString(R.string.success_available)
-                                : getString(R.string.error_not_available)
-                );
+                // Display whether the username is being checked, "Available", "Not available" or couldn't be checked.
+                if (validationResult == Validator.ValidationResult.Pending) {
+                    view.setText(getString(R.string.status_checking));
+                    view.setTextColor(getColor(R.color.colorPrimary));
+                    return;
+                } else if (validationResult == Validator.ValidationResult.Unknown) {
+                    view.setText(getString(R.string.error_availability_unknown));
+                } else {
+                    view.setText(
+                            validationResult == Validator.ValidationResult.Valid
+                                    ? getString(R.string.success_available)
+                                    : getString(R.string.error_not_available)
+                    );
+                }
 
                 // Change the color of the text.
                 view.setTextColor(
@@ -104,34 +185,28 @@ public class LoginActivity extends AppCompatActivity {
         // Add the observers
         userNameAvailableValidator.observe(userNameStatusObserver);
 
+        // Only touch the status view when the availability actually changes.
+        userNameAvailableValidator.distinctUntilChanged(true);
+
+        // Show that the username is being checked while the UserRepository is queried.
+        userNameAvailableValidator.notifyPending(true);
+
         /*
          * Create a Validator for the username field that will
          *  be used to check if it contains valid characters
         */
         final Validator<EditText> userNameCompliesValidator = new Validator<>(new Criteria<EditText>(userNameEditText)
                 // Make sure it doesn't contain special characters
-                .test(new Criteria.Condition<EditText>() {
-                              @Override
-                              public boolean evaluate(EditText view) {
-                                  return Pattern.matches("^[a-zA-Z0-9]*$", view.getText().toString());
-                              }
+                .test(validCharactersCondition)
                 // Make sure it contains the name of a popular fruit
-                }).test(new Criteria.Condition<EditText>() {
-                    @Override
-                    public boolean evaluate(EditText view) {
-                        String[] fruit = {
-                                "apple",
-                                "banana",
-                                "blueberry",
-                                "kiwi",
-                                "orange",
-                                "strawberry"
-                        };
-                        Pattern pattern = Pattern.compile(TextUtils.join("|", fruit));
-                        Matcher matcher = pattern.matcher(view.getText().toString().toLowerCase());
-                        return matcher.find();
-                    }
-                })
+                .test(Conditions.containsAnyWord(
+                        "apple",
+                        "banana",
+                        "blueberry",
+                        "kiwi",
+                        "orange",
+                        "strawberry"
+                ))
         );
 
         userNameCompliesValidator.observe(
@@ -154,6 +229,8 @@ public class LoginActivity extends AppCompatActivity {
                  * if the username contains invalid characters. This method will display the message
                  * below the EditText wrapped inside the TextInputLayout.
                  *
+                 * The failed conditions bitmask tells which condition failed, in the order they
+                 * were added to the Criteria, so the message explains what's wrong.
                  */
                 new Observer<TextInputLayout>((TextInputLayout) findViewById(R.id.user_name_layout)) {
                     @Override
@@ -162,11 +239,36 @@ public class LoginActivity extends AppCompatActivity {
                                 ? null
                                 : getString(R.string.error_invalid_username));
                     }
+
+                    @Override
+                    protected void onValidationComplete(TextInputLayout view, Validator.ValidationResult validationResult,
+                                                        long failedConditions) {
+                        if ((failedConditions & INVALID_CHARACTERS) != 0) {
+                            view.setError(getString(R.string.error_invalid_characters));
+                        } else if ((failedConditions & MISSING_FRUIT) != 0) {
+                            view.setError(getString(R.string.error_missing_fruit));
+                        } else {
+                            onValidationComplete(view, validationResult);
+                        }
+                    }
                 });
 
+        // Most keystrokes don't change whether the username complies, so skip those updates.
+        userNameCompliesValidator.distinctUntilChanged(true);
+
         // Add the validators to a ValidatorSet so they can both be validated via a single request.
         final ValidatorSet validatorSet = new ValidatorSet(userNameAvailableValidator, userNameCompliesValidator);
 
+        // Both validators update the username status view, so apply their updates in the same frame.
+        validatorSet.dispatchOnFrame(new FrameBatchDispatcher());
+
+        // Skip validators whose username hasn't changed since their last result, for example
+        // when a character is typed and deleted again before the debounce delay passes.
+        validatorSet.incremental(true);
+
+        // Cancel the username lookups when the screen stops, so they don't outlive the activity.
+        validatorSet.bindTo(this);
+
         // Listen for text being modified in the user name view.
         userNameEditText.addTextChangedListener(new TextWatcher() {
             @Override
@@ -185,10 +287,11 @@ public class LoginActivity extends AppCompatActivity {
                 if (s.toString().length() > 3) {
 
                     /*
-                     * Calling validate() on the validatorSet object will evaluate both
-                     * userNameAvailableValidator and userNameCompliesValidator.
+                     * Calling validateDebounced() on the validatorSet object will evaluate both
+                     * userNameAvailableValidator and userNameCompliesValidator once the user
+                     * stops typing for 250ms, rather than once per keystroke.
                      */
-                    validatorSet.validate();
+                    validatorSet.validateDebounced(250, TimeUnit.MILLISECONDS);
                 } else {
                     validatorSet.cancelValidation();
                     // Reset the views if the input is not at least 4 characters.
@@ -2,13 +2,14 @@ package io.launchowl.viewvalidation.sampleapp;
 
 import android.os.Handler;
 import android.os.Looper;
-import android.os.Message;
 
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 
+import io.launchowl.viewvalidationlibrary.CancellationToken;
+
 /**
  * A mock user repository.
  */
@@ -20,20 +21,36 @@ public class UserRepository {
     ));
 
 
+    // Delivers simulated responses on the main thread.
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
     /**
-     * Retrieves a user.
+     * Retrieves a user without blocking the calling thread.
+     * <p>
+     * The listener is called on the main thread. The request is abandoned as soon as the
+     * {@link CancellationToken} is cancelled, in which case the listener is never called.
      *
      * @param userName username
+     * @param cancellationToken a {@link CancellationToken} that is cancelled if the user is no longer needed
      * @param onUuserRetrievedListener an {@link OnuserRetrievedListener}
      */
-    void getUser(final String userName, final OnuserRetrievedListener onUuserRetrievedListener) {
-        try {
-            Thread.sleep(ThreadLocalRandom.current().nextInt(300, 1500));
-            onUuserRetrievedListener.onUserRetrieved(findUser(userName));
-        } catch (InterruptedException e ) {
-            e.printStackTrace();
-        }
+    void getUser(final String userName, final CancellationToken cancellationToken,
+                 final OnuserRetrievedListener onUuserRetrievedListener) {
+        // Simulate a remote request whose response arrives later, like a non-blocking HTTP client.
+        final Runnable response = new Runnable() {
+            @Override
+            public void run() {
+                onUuserRetrievedListener.onUserRetrieved(findUser(userName));
+            }
+        };
+        cancellationToken.addListener(new CancellationToken.Listener() {
+            @Override
+            public void onCancelled() {
+                handler.removeCallbacks(response);
+            }
+        });
 
+        handler.postDelayed(response, ThreadLocalRandom.current().nextInt(300, 1500));
     }
 
     /**
@@ -0,0 +1,92 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency from starting an evaluation on the main thread until the result of an
+ * {@link Criteria.AsyncCondition} has been delivered back to the main thread.
+ * <p>
+ * The condition completes immediately, so the measured time is the overhead of the executor
+ * and the main thread hand-off. With memoization enabled every evaluation after the first is
+ * served from the {@link ResultCache}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AsyncCompletionBenchmark {
+    @Param({"false", "true"})
+    public boolean memoized;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private AsyncConditionExecutor executor;
+    private final InputView inputView = new InputView();
+    private Criteria<InputView> criteria;
+    private CountDownLatch completed;
+    private final Criteria.EvalCompleteListener listener = new Criteria.EvalCompleteListener() {
+        @Override
+        public void onComplete(Validator.ValidationResult validationResult) {
+            completed.countDown();
+        }
+    };
+    private final Runnable evaluate = new Runnable() {
+        @Override
+        public void run() {
+            criteria.evaluate(listener);
+        }
+    };
+
+    @Setup
+    public void setUp() {
+        this.executor = new AsyncConditionExecutor(2, 32, AsyncConditionExecutor.RejectionPolicy.Abort);
+
+        Criteria.AsyncCondition<InputView> asyncCondition = new Criteria.AsyncCondition<InputView>() {
+            @Override
+            protected void evaluate(InputView view) {
+                complete(!view.text.isEmpty());
+            }
+
+            @Override
+            protected void onCancelled() {
+            }
+        };
+
+        if (this.memoized) {
+            asyncCondition.memoize(new Criteria.KeyExtractor<InputView>() {
+                @Override
+                public Object extractKey(InputView view) {
+                    return view.text;
+                }
+            }, 16, 1, TimeUnit.MINUTES);
+        }
+
+        this.criteria = new Criteria<>(this.inputView)
+                .executeOn(this.executor)
+                .asyncTest(asyncCondition);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.executor.shutdown();
+    }
+
+    @Benchmark
+    public void evaluateAndAwait() throws InterruptedException {
+        this.completed = new CountDownLatch(1);
+        this.mainHandler.post(this.evaluate);
+        this.completed.await();
+    }
+}
@@ -0,0 +1,59 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link Criteria#evaluate(Criteria.EvalCompleteListener)} with only
+ * synchronous conditions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CriteriaBenchmark {
+    @Param({"1", "10", "100"})
+    public int conditionCount;
+
+    @Param({"false", "true"})
+    public boolean failFast;
+
+    private final InputView inputView = new InputView();
+    private Criteria<InputView> criteria;
+    private Validator.ValidationResult lastResult;
+    private final Criteria.EvalCompleteListener listener = new Criteria.EvalCompleteListener() {
+        @Override
+        public void onComplete(Validator.ValidationResult validationResult) {
+            lastResult = validationResult;
+        }
+    };
+
+    @Setup
+    public void setUp() {
+        this.criteria = new Criteria<>(this.inputView).failFast(this.failFast);
+
+        for (int i = 0; i < this.conditionCount; i++) {
+            final int minLength = i % 8;
+            this.criteria.test(new Criteria.Condition<InputView>() {
+                @Override
+                public boolean evaluate(InputView view) {
+                    return view.text.length() > minLength;
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public Validator.ValidationResult evaluate() {
+        this.criteria.evaluate(this.listener);
+
+        return this.lastResult;
+    }
+}
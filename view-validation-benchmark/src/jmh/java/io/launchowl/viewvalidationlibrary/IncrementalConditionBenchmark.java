@@ -0,0 +1,71 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.TextView;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rescanning the whole text after a keystroke with updating an
+ * {@link IncrementalCondition} from the edit.
+ * <p>
+ * Each operation types a character at the end of the text, evaluates the condition, deletes
+ * the character and evaluates the condition again.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IncrementalConditionBenchmark {
+    @Param({"100", "10000"})
+    public int textLength;
+
+    private final StringBuilder text = new StringBuilder();
+    private final TextView textView = new TextView();
+    private Criteria.Condition<TextView> fullScanCondition;
+    private IncrementalCondition incrementalCondition;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < this.textLength; i++) {
+            this.text.append(Conditions.LETTERS_AND_DIGITS.charAt(i % Conditions.LETTERS_AND_DIGITS.length()));
+        }
+        this.textView.setText(this.text);
+
+        this.fullScanCondition = Conditions.onlyCharacters(Conditions.LETTERS_AND_DIGITS);
+        this.incrementalCondition = Conditions.onlyCharactersIncremental(Conditions.LETTERS_AND_DIGITS);
+        this.incrementalCondition.evaluate(this.textView);
+    }
+
+    @Benchmark
+    public boolean fullScan() {
+        this.text.append('x');
+        boolean typed = this.fullScanCondition.evaluate(this.textView);
+        this.text.setLength(this.textLength);
+
+        return typed & this.fullScanCondition.evaluate(this.textView);
+    }
+
+    @Benchmark
+    public boolean incremental() {
+        int end = this.textLength;
+
+        this.incrementalCondition.beforeTextChanged(this.text, end, 0, 1);
+        this.text.append('x');
+        this.incrementalCondition.onTextChanged(this.text, end, 0, 1);
+        boolean typed = this.incrementalCondition.evaluate(this.textView);
+
+        this.incrementalCondition.beforeTextChanged(this.text, end, 1, 0);
+        this.text.setLength(end);
+        this.incrementalCondition.onTextChanged(this.text, end, 1, 0);
+
+        return typed & this.incrementalCondition.evaluate(this.textView);
+    }
+}
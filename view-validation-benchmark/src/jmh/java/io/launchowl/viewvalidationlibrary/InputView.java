@@ -0,0 +1,10 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.view.View;
+
+/**
+ * A view holding the text being validated by the benchmarks.
+ */
+class InputView extends View {
+    String text = "strawberry";
+}
@@ -0,0 +1,64 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of notifying the observers of a {@link Validator} whose result doesn't
+ * change between evaluations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ObserverFanOutBenchmark {
+    @Param({"1", "10", "100"})
+    public int observerCount;
+
+    @Param({"false", "true"})
+    public boolean distinctUntilChanged;
+
+    private final InputView inputView = new InputView();
+    private final List<InputView> observerViews = new ArrayList<>();
+    private Validator<InputView> validator;
+    private int updates;
+
+    @Setup
+    public void setUp() {
+        this.validator = new Validator<>(new Criteria<>(this.inputView)
+                .test(new Criteria.Condition<InputView>() {
+                    @Override
+                    public boolean evaluate(InputView view) {
+                        return !view.text.isEmpty();
+                    }
+                }));
+        this.validator.distinctUntilChanged(this.distinctUntilChanged);
+
+        for (int i = 0; i < this.observerCount; i++) {
+            InputView observerView = new InputView();
+            this.observerViews.add(observerView);
+            this.validator.observe(new Observer<InputView>(observerView) {
+                @Override
+                protected void onValidationComplete(InputView view, Validator.ValidationResult validationResult) {
+                    updates++;
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public int validate() {
+        this.validator.validate();
+
+        return this.updates;
+    }
+}
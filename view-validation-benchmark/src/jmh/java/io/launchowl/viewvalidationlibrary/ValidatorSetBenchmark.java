@@ -0,0 +1,82 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a {@link ValidatorSet} round across many validators, each with a few
+ * synchronous conditions.
+ * <p>
+ * In incremental mode no input changes between rounds, so every evaluation is skipped.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidatorSetBenchmark {
+    private static final int CONDITIONS_PER_VALIDATOR = 3;
+
+    @Param({"1", "10", "100"})
+    public int validatorCount;
+
+    @Param({"false", "true"})
+    public boolean incremental;
+
+    private final List<InputView> inputViews = new ArrayList<>();
+    private ValidatorSet validatorSet;
+    private ValidatorSet.Result lastResult;
+
+    @Setup
+    public void setUp() {
+        this.validatorSet = new ValidatorSet();
+
+        for (int i = 0; i < this.validatorCount; i++) {
+            InputView inputView = new InputView();
+            this.inputViews.add(inputView);
+            Criteria<InputView> criteria = new Criteria<>(inputView);
+            for (int j = 0; j < CONDITIONS_PER_VALIDATOR; j++) {
+                final int minLength = j;
+                criteria.test(new Criteria.Condition<InputView>() {
+                    @Override
+                    public boolean evaluate(InputView view) {
+                        return view.text.length() > minLength;
+                    }
+                });
+            }
+
+            Validator<InputView> validator = new Validator<>(criteria);
+            validator.fingerprint(new Criteria.KeyExtractor<InputView>() {
+                @Override
+                public Object extractKey(InputView view) {
+                    return view.text;
+                }
+            });
+            this.validatorSet.add(validator);
+        }
+
+        this.validatorSet.incremental(this.incremental);
+
+        this.validatorSet.setCompleteListener(new ValidatorSet.SetCompleteListener() {
+            @Override
+            public void onComplete(ValidatorSet.Result result) {
+                lastResult = result;
+            }
+        });
+    }
+
+    @Benchmark
+    public ValidatorSet.Result validate() {
+        this.validatorSet.validate();
+
+        return this.lastResult;
+    }
+}
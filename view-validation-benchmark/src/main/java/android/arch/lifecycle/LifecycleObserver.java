@@ -0,0 +1,8 @@
+package android.arch.lifecycle;
+
+/**
+ * A stand-in for android.arch.lifecycle.LifecycleObserver so the library can be benchmarked on
+ * the JVM.
+ */
+public interface LifecycleObserver {
+}
@@ -0,0 +1,9 @@
+package android.arch.lifecycle;
+
+/**
+ * A stand-in for android.arch.lifecycle.LifecycleOwner so the library can be benchmarked on the
+ * JVM.
+ */
+public interface LifecycleOwner {
+    Lifecycle getLifecycle();
+}
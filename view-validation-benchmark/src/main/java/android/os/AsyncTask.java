@@ -0,0 +1,7 @@
+package android.os;
+
+/**
+ * A stand-in for android.os.AsyncTask so the library can be benchmarked on the JVM.
+ */
+public abstract class AsyncTask<Params, Progress, Result> {
+}
@@ -0,0 +1,83 @@
+package android.os;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A stand-in for android.os.Handler that runs messages and callbacks on a {@link Looper}.
+ */
+public class Handler {
+    private final Looper looper;
+    private final Map<Runnable, List<Future<?>>> callbacks = new HashMap<>();
+
+    public Handler() {
+        this(Looper.myLooper());
+    }
+
+    public Handler(Looper looper) {
+        this.looper = looper;
+    }
+
+    public void handleMessage(Message msg) {
+    }
+
+    public final Looper getLooper() {
+        return this.looper;
+    }
+
+    public final Message obtainMessage() {
+        Message message = Message.obtain();
+        message.target = this;
+        return message;
+    }
+
+    public final boolean sendMessage(final Message msg) {
+        this.looper.getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                handleMessage(msg);
+            }
+        });
+        return true;
+    }
+
+    public final boolean post(Runnable r) {
+        return postDelayed(r, 0);
+    }
+
+    public final boolean postDelayed(final Runnable r, long delayMillis) {
+        synchronized (this.callbacks) {
+            List<Future<?>> futures = this.callbacks.get(r);
+            if (futures == null) {
+                futures = new ArrayList<>();
+                this.callbacks.put(r, futures);
+            }
+
+            futures.add(this.looper.getExecutor().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (callbacks) {
+                        callbacks.remove(r);
+                    }
+                    r.run();
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS));
+        }
+        return true;
+    }
+
+    public final void removeCallbacks(Runnable r) {
+        synchronized (this.callbacks) {
+            List<Future<?>> futures = this.callbacks.remove(r);
+            if (futures != null) {
+                for (Future<?> future : futures) {
+                    future.cancel(false);
+                }
+            }
+        }
+    }
+}
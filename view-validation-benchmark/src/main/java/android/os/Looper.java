@@ -0,0 +1,43 @@
+package android.os;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A stand-in for android.os.Looper. The main looper is a single daemon thread that runs the
+ * work posted by {@link Handler} objects in order.
+ */
+public final class Looper {
+    private static final Looper mainLooper = new Looper("main");
+    private final ScheduledExecutorService executor;
+    private volatile Thread thread;
+
+    private Looper(final String name) {
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                Looper.this.thread = thread;
+                return thread;
+            }
+        });
+    }
+
+    public static Looper getMainLooper() {
+        return mainLooper;
+    }
+
+    public static Looper myLooper() {
+        return Thread.currentThread() == mainLooper.thread ? mainLooper : null;
+    }
+
+    public Thread getThread() {
+        return this.thread;
+    }
+
+    ScheduledExecutorService getExecutor() {
+        return this.executor;
+    }
+}
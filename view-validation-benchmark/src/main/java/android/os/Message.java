@@ -0,0 +1,19 @@
+package android.os;
+
+/**
+ * A stand-in for android.os.Message so the library can be benchmarked on the JVM.
+ */
+public final class Message {
+    public int arg1;
+    public int arg2;
+    public Object obj;
+    Handler target;
+
+    public static Message obtain() {
+        return new Message();
+    }
+
+    public void sendToTarget() {
+        this.target.sendMessage(this);
+    }
+}
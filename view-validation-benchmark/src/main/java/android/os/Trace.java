@@ -0,0 +1,16 @@
+package android.os;
+
+/**
+ * A stand-in for android.os.Trace so the library can be benchmarked on the JVM. Sections are
+ * discarded.
+ */
+public final class Trace {
+    private Trace() {
+    }
+
+    public static void beginSection(String sectionName) {
+    }
+
+    public static void endSection() {
+    }
+}
@@ -0,0 +1,7 @@
+package android.text;
+
+/**
+ * A stand-in for android.text.Editable so the library can be benchmarked on the JVM.
+ */
+public interface Editable extends CharSequence {
+}
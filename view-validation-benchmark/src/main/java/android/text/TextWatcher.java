@@ -0,0 +1,12 @@
+package android.text;
+
+/**
+ * A stand-in for android.text.TextWatcher so the library can be benchmarked on the JVM.
+ */
+public interface TextWatcher {
+    void beforeTextChanged(CharSequence s, int start, int count, int after);
+
+    void onTextChanged(CharSequence s, int start, int before, int count);
+
+    void afterTextChanged(Editable s);
+}
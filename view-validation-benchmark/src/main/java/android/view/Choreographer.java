@@ -0,0 +1,34 @@
+package android.view;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * A stand-in for android.view.Choreographer that begins a frame every 16 milliseconds on the
+ * main {@link Looper}.
+ */
+public final class Choreographer {
+    private static final long FRAME_MILLIS = 16;
+    private static final Choreographer instance = new Choreographer();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    public interface FrameCallback {
+        void doFrame(long frameTimeNanos);
+    }
+
+    private Choreographer() {
+    }
+
+    public static Choreographer getInstance() {
+        return instance;
+    }
+
+    public void postFrameCallback(final FrameCallback callback) {
+        this.handler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                callback.doFrame(System.nanoTime());
+            }
+        }, FRAME_MILLIS);
+    }
+}
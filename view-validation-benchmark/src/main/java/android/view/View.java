@@ -0,0 +1,7 @@
+package android.view;
+
+/**
+ * A stand-in for android.view.View so the library can be benchmarked on the JVM.
+ */
+public class View {
+}
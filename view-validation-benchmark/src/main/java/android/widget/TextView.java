@@ -0,0 +1,22 @@
+package android.widget;
+
+import android.text.TextWatcher;
+import android.view.View;
+
+/**
+ * A stand-in for android.widget.TextView so the library can be benchmarked on the JVM.
+ */
+public class TextView extends View {
+    private CharSequence text = "";
+
+    public CharSequence getText() {
+        return this.text;
+    }
+
+    public void setText(CharSequence text) {
+        this.text = text;
+    }
+
+    public void addTextChangedListener(TextWatcher watcher) {
+    }
+}
@@ -0,0 +1,418 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of worker threads that runs {@link Criteria.AsyncCondition} evaluations.
+ * <p>
+ * Every {@link Criteria} submits its asynchronous conditions to the library-wide default executor
+ * (see {@link #getDefault()}) unless a different executor is supplied via
+ * {@link Criteria#executeOn(AsyncConditionExecutor)}.
+ * <p>
+ * The executor keeps at most <i>poolSize</i> threads alive and queues at most <i>queueCapacity</i>
+ * evaluations. When the queue is full the {@link RejectionPolicy} decides what happens to the
+ * new evaluation.
+ * <pre>
+ * {@code
+ *  // Two threads and room for eight pending evaluations.
+ *  AsyncConditionExecutor.setDefault(
+ *          new AsyncConditionExecutor(2, 8, AsyncConditionExecutor.RejectionPolicy.DiscardOldest));
+ * }
+ * </pre>
+ */
+public class AsyncConditionExecutor {
+    private static final int DEFAULT_POOL_SIZE = 2;
+    private static final int DEFAULT_QUEUE_CAPACITY = 32;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static AsyncConditionExecutor defaultExecutor;
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+    private final RejectionPolicy rejectionPolicy;
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong startedCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong usefulCount = new AtomicLong();
+    private final AtomicLong wastedCount = new AtomicLong();
+    private final AtomicLong wastedNanos = new AtomicLong();
+
+    /**
+     * Determines what happens to an evaluation that is submitted while the queue is full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * The new evaluation is not run and its condition completes as
+         * {@link Validator.ValidationResult#Unknown}.
+         */
+        Abort,
+
+        /**
+         * The new evaluation is run on the thread that submitted it.
+         * <p>
+         * This is usually the main UI thread, so only use this policy for conditions that
+         * complete quickly.
+         */
+        CallerRuns,
+
+        /**
+         * The oldest queued evaluation is dropped and its condition completes as
+         * {@link Validator.ValidationResult#Unknown}. The new evaluation is queued in its place.
+         */
+        DiscardOldest
+    }
+
+    /**
+     * Class constructor specifying the size of the pool, the size of the queue and the policy
+     * applied when the queue is full.
+     *
+     * @param poolSize the maximum number of threads that evaluate conditions at the same time
+     * @param queueCapacity the maximum number of evaluations waiting for a thread
+     * @param rejectionPolicy a {@link RejectionPolicy}
+     */
+    public AsyncConditionExecutor(int poolSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("poolSize must be at least 1");
+        }
+
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be at least 1");
+        }
+
+        if (rejectionPolicy == null) {
+            throw new IllegalArgumentException("rejectionPolicy must not be null");
+        }
+
+        this.rejectionPolicy = rejectionPolicy;
+        this.threadPoolExecutor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(queueCapacity),
+                new WorkerThreadFactory(),
+                new RejectionHandler()) {
+            @Override
+            protected void beforeExecute(Thread thread, Runnable runnable) {
+                if (runnable instanceof Task) {
+                    recordStart((Task) runnable);
+                }
+            }
+
+            @Override
+            protected void afterExecute(Runnable runnable, Throwable throwable) {
+                if (runnable instanceof Task) {
+                    recordFinish((Task) runnable);
+                }
+            }
+        };
+        this.threadPoolExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the executor used by every {@link Criteria} that hasn't been supplied its own
+     * executor.
+     * <p>
+     * Unless {@link #setDefault(AsyncConditionExecutor)} is called, the default executor has
+     * two threads, room for 32 pending evaluations and uses {@link RejectionPolicy#DiscardOldest}.
+     *
+     * @return the library-wide default {@link AsyncConditionExecutor}
+     */
+    public static synchronized AsyncConditionExecutor getDefault() {
+        if (defaultExecutor == null) {
+            defaultExecutor = new AsyncConditionExecutor(
+                    DEFAULT_POOL_SIZE, DEFAULT_QUEUE_CAPACITY, RejectionPolicy.DiscardOldest);
+        }
+
+        return defaultExecutor;
+    }
+
+    /**
+     * Replaces the library-wide default executor.
+     * <p>
+     * Evaluations already submitted to the previous default executor are not affected.
+     *
+     * @param executor the new default {@link AsyncConditionExecutor}
+     */
+    public static synchronized void setDefault(AsyncConditionExecutor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor must not be null");
+        }
+
+        defaultExecutor = executor;
+    }
+
+    /**
+     * Returns the {@link RejectionPolicy} supplied to the constructor.
+     *
+     * @return the {@link RejectionPolicy} of this executor
+     */
+    public RejectionPolicy getRejectionPolicy() {
+        return this.rejectionPolicy;
+    }
+
+    /**
+     * Returns the number of evaluations waiting for a thread.
+     *
+     * @return the current depth of the queue
+     */
+    public int getQueueDepth() {
+        return this.threadPoolExecutor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of threads currently evaluating a condition.
+     *
+     * @return the number of busy threads
+     */
+    public int getActiveCount() {
+        return this.threadPoolExecutor.getActiveCount();
+    }
+
+    /**
+     * Returns the number of evaluations submitted to this executor.
+     *
+     * @return the number of submitted evaluations
+     */
+    public long getSubmittedCount() {
+        return this.submittedCount.get();
+    }
+
+    /**
+     * Returns the number of evaluations that were aborted or discarded because the queue was full.
+     *
+     * @return the number of rejected evaluations
+     */
+    public long getRejectedCount() {
+        return this.rejectedCount.get();
+    }
+
+    /**
+     * Returns the average time an evaluation waited in the queue before a thread picked it up.
+     *
+     * @param unit the {@link TimeUnit} of the returned value
+     * @return the average wait time, or 0 if no evaluation has started yet
+     */
+    public long getAverageWaitTime(TimeUnit unit) {
+        long started = this.startedCount.get();
+
+        return started == 0 ? 0 : unit.convert(this.totalWaitNanos.get() / started, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the longest time an evaluation waited in the queue before a thread picked it up.
+     *
+     * @param unit the {@link TimeUnit} of the returned value
+     * @return the maximum wait time
+     */
+    public long getMaxWaitTime(TimeUnit unit) {
+        return unit.convert(this.maxWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of evaluations that ran to completion while their result was still
+     * needed.
+     *
+     * @return the number of useful evaluations
+     */
+    public long getUsefulCount() {
+        return this.usefulCount.get();
+    }
+
+    /**
+     * Returns the number of evaluations that were running when their {@link CancellationToken}
+     * was cancelled, so their result was thrown away.
+     *
+     * @return the number of wasted evaluations
+     */
+    public long getWastedCount() {
+        return this.wastedCount.get();
+    }
+
+    /**
+     * Returns the total time threads spent running evaluations whose result was thrown away.
+     * <p>
+     * Conditions that stop early when their {@link CancellationToken} is cancelled keep this
+     * value low.
+     *
+     * @param unit the {@link TimeUnit} of the returned value
+     * @return the time spent on wasted evaluations
+     */
+    public long getWastedTime(TimeUnit unit) {
+        return unit.convert(this.wastedNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops accepting new evaluations. Evaluations already queued will still run.
+     */
+    public void shutdown() {
+        this.threadPoolExecutor.shutdown();
+    }
+
+    /**
+     * Queues a task.
+     * <p>
+     * If the task is rejected, {@link Task#onRejected()} is invoked before this method returns.
+     *
+     * @param task the {@link Task} to be run
+     */
+    void execute(Task task) {
+        this.submittedCount.incrementAndGet();
+        task.enqueuedAt = System.nanoTime();
+        this.threadPoolExecutor.execute(task);
+    }
+
+    /**
+     * Removes a task from the queue if it hasn't started yet.
+     *
+     * @param task the {@link Task} to be removed
+     */
+    void remove(Task task) {
+        this.threadPoolExecutor.remove(task);
+    }
+
+    /**
+     * Returns the queue backing the thread pool.
+     * <p>
+     * For testing.
+     *
+     * @return the queue backing the thread pool
+     */
+    BlockingQueue<Runnable> getQueue() {
+        return this.threadPoolExecutor.getQueue();
+    }
+
+    /**
+     * Records how long a task waited in the queue.
+     *
+     * @param task the {@link Task} that is about to run
+     */
+    private void recordStart(Task task) {
+        task.startedAt = System.nanoTime();
+        long waitNanos = task.startedAt - task.enqueuedAt;
+
+        this.startedCount.incrementAndGet();
+        this.totalWaitNanos.addAndGet(waitNanos);
+
+        long max = this.maxWaitNanos.get();
+        while (waitNanos > max && !this.maxWaitNanos.compareAndSet(max, waitNanos)) {
+            max = this.maxWaitNanos.get();
+        }
+    }
+
+    /**
+     * Records whether a finished task was useful or wasted.
+     *
+     * @param task the {@link Task} that has finished running
+     */
+    private void recordFinish(Task task) {
+        if (task.cancellationToken.isCancellationRequested()) {
+            this.wastedCount.incrementAndGet();
+            this.wastedNanos.addAndGet(System.nanoTime() - task.startedAt);
+        } else {
+            this.usefulCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * A unit of work submitted to an {@link AsyncConditionExecutor}.
+     * <p>
+     * A task can be cancelled with {@link #cancel(boolean)}, which also cancels its
+     * {@link CancellationToken}. A task that is rejected by the executor is notified via
+     * {@link #onRejected()}.
+     */
+    abstract static class Task extends FutureTask<Void> {
+        final CancellationToken cancellationToken = new CancellationToken();
+        private volatile long enqueuedAt;
+        private volatile long startedAt;
+
+        Task(final Runnable runnable) {
+            super(runnable, null);
+        }
+
+        /**
+         * Returns how long the task waited in the queue before a thread picked it up.
+         *
+         * @return the wait time in nanoseconds, or 0 if the task wasn't queued
+         */
+        long getQueueWaitNanos() {
+            return this.enqueuedAt == 0 ? 0 : System.nanoTime() - this.enqueuedAt;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            this.cancellationToken.cancel();
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+        /**
+         * This method is called if the executor couldn't run the task because its queue was full.
+         */
+        abstract void onRejected();
+    }
+
+    /**
+     * Applies the {@link RejectionPolicy} of the enclosing executor.
+     */
+    private class RejectionHandler implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                reject(runnable);
+                return;
+            }
+
+            switch (rejectionPolicy) {
+                case CallerRuns:
+                    runnable.run();
+                    break;
+
+                case DiscardOldest:
+                    Runnable oldest = executor.getQueue().poll();
+                    if (oldest != null) {
+                        reject(oldest);
+                    }
+                    executor.execute(runnable);
+                    break;
+
+                case Abort:
+                default:
+                    reject(runnable);
+                    break;
+            }
+        }
+
+        private void reject(Runnable runnable) {
+            rejectedCount.incrementAndGet();
+            if (runnable instanceof Task) {
+                ((Task) runnable).onRejected();
+            } else {
+                throw new RejectedExecutionException();
+            }
+        }
+    }
+
+    /**
+     * Creates named daemon threads so an abandoned evaluation never keeps the process alive.
+     */
+    private class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(runnable, "AsyncCondition-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Signals that the result of an {@link Criteria.AsyncCondition} evaluation is no longer needed.
+ * <p>
+ * A token is created for every evaluation and is cancelled when the evaluation is superseded,
+ * cancelled or times out. Worker threads are never interrupted, so a condition that performs
+ * long-running work should check the token, or register a {@link Listener}, and stop early.
+ * <pre>
+ * {@code
+ *  protected void evaluate(EditText view) {
+ *      final Call call = client.newCall(request);
+ *      getCancellationToken().addListener(new CancellationToken.Listener() {
+ *          public void onCancelled() {
+ *              call.cancel();
+ *          }
+ *      });
+ *      ...
+ *  }
+ * }
+ * </pre>
+ *
+ * @see Criteria.AsyncCondition#getCancellationToken()
+ */
+public final class CancellationToken {
+    private volatile boolean cancellationRequested = false;
+    private List<Listener> listeners;
+
+    /**
+     * Receives a callback when a {@link CancellationToken} is cancelled.
+     */
+    public interface Listener {
+
+        /**
+         * This method is called once when the token is cancelled. It is called on the thread
+         * that cancelled the token, usually the main UI thread, so it must return quickly.
+         */
+        void onCancelled();
+    }
+
+    /**
+     * Returns whether the evaluation has been cancelled.
+     *
+     * @return true if the result of the evaluation is no longer needed, otherwise false
+     */
+    public boolean isCancellationRequested() {
+        return this.cancellationRequested;
+    }
+
+    /**
+     * Throws a {@link CancellationException} if the evaluation has been cancelled.
+     *
+     * @throws CancellationException if the result of the evaluation is no longer needed
+     */
+    public void throwIfCancellationRequested() {
+        if (this.cancellationRequested) {
+            throw new CancellationException();
+        }
+    }
+
+    /**
+     * Registers a {@link Listener} that is called when the token is cancelled.
+     * <p>
+     * If the token has already been cancelled, the listener is called before this method returns.
+     *
+     * @param listener a {@link Listener}
+     */
+    public void addListener(Listener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener must not be null");
+        }
+
+        synchronized (this) {
+            if (!this.cancellationRequested) {
+                if (this.listeners == null) {
+                    this.listeners = new ArrayList<>(1);
+                }
+                this.listeners.add(listener);
+                return;
+            }
+        }
+
+        listener.onCancelled();
+    }
+
+    /**
+     * Removes a {@link Listener}, for example once the work it would stop has completed.
+     *
+     * @param listener the {@link Listener} to be removed
+     */
+    public synchronized void removeListener(Listener listener) {
+        if (this.listeners != null) {
+            this.listeners.remove(listener);
+        }
+    }
+
+    /**
+     * Cancels the token and calls every registered {@link Listener}. Subsequent calls have no
+     * effect.
+     */
+    void cancel() {
+        List<Listener> listeners;
+
+        synchronized (this) {
+            if (this.cancellationRequested) {
+                return;
+            }
+
+            this.cancellationRequested = true;
+            listeners = this.listeners;
+            this.listeners = null;
+        }
+
+        if (listeners != null) {
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).onCancelled();
+            }
+        }
+    }
+}
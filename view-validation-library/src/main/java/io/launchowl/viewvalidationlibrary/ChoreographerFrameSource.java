@@ -0,0 +1,57 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+/**
+ * A {@link FrameSource} backed by the {@link Choreographer} of the main {@link Looper}, so
+ * posted work runs on the next vsync.
+ */
+class ChoreographerFrameSource implements FrameSource {
+    private static ChoreographerFrameSource instance;
+    private final Handler handler;
+    private Choreographer choreographer;
+
+    private ChoreographerFrameSource() {
+        this.handler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Returns the shared instance, creating it the first time it's requested.
+     *
+     * @return the shared {@link ChoreographerFrameSource}
+     */
+    static synchronized ChoreographerFrameSource getInstance() {
+        if (instance == null) {
+            instance = new ChoreographerFrameSource();
+        }
+
+        return instance;
+    }
+
+    @Override
+    public void postFrameCallback(final Runnable runnable) {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            // A Choreographer belongs to the thread that created it, so hop to the main thread.
+            this.handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    postFrameCallback(runnable);
+                }
+            });
+            return;
+        }
+
+        if (this.choreographer == null) {
+            this.choreographer = Choreographer.getInstance();
+        }
+
+        this.choreographer.postFrameCallback(new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                runnable.run();
+            }
+        });
+    }
+}
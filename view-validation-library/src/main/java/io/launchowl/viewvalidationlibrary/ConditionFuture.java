@@ -0,0 +1,145 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The pending result of a {@link Criteria.FutureCondition}.
+ * <p>
+ * A future is completed exactly once, from any thread, by calling {@link #complete(boolean)}
+ * (ex: from the callback of a non-blocking HTTP client). Listeners registered via
+ * {@link #addListener(Listener)} are called on the completing thread.
+ * <p>
+ * A future that is cancelled, because its result is no longer needed, ignores a later call to
+ * {@link #complete(boolean)}.
+ */
+public final class ConditionFuture {
+    private static final int PENDING = 0;
+    private static final int PASSED = 1;
+    private static final int FAILED = 2;
+    private static final int CANCELLED = 3;
+
+    private int state = PENDING;
+    private List<Listener> listeners;
+
+    /**
+     * Receives the result of a {@link ConditionFuture}.
+     */
+    public interface Listener {
+
+        /**
+         * This method is called once when the future is completed. It isn't called if the
+         * future is cancelled.
+         *
+         * @param result the result of the condition
+         */
+        void onComplete(boolean result);
+    }
+
+    /**
+     * Returns a future that has already been completed, for conditions that can answer
+     * without waiting.
+     *
+     * @param result the result of the condition
+     * @return a completed {@link ConditionFuture}
+     */
+    public static ConditionFuture completed(boolean result) {
+        ConditionFuture future = new ConditionFuture();
+        future.complete(result);
+        return future;
+    }
+
+    /**
+     * Completes the future and calls every registered {@link Listener}.
+     *
+     * @param result true if the test passed, otherwise false
+     * @return true if this call completed the future, false if it was already completed or
+     * cancelled
+     */
+    public boolean complete(boolean result) {
+        List<Listener> listeners;
+
+        synchronized (this) {
+            if (this.state != PENDING) {
+                return false;
+            }
+
+            this.state = result ? PASSED : FAILED;
+            listeners = this.listeners;
+            this.listeners = null;
+        }
+
+        if (listeners != null) {
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).onComplete(result);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Cancels the future. Registered listeners are dropped without being called.
+     *
+     * @return true if this call cancelled the future, false if it was already completed or
+     * cancelled
+     */
+    public synchronized boolean cancel() {
+        if (this.state != PENDING) {
+            return false;
+        }
+
+        this.state = CANCELLED;
+        this.listeners = null;
+        return true;
+    }
+
+    /**
+     * Returns whether the future has been completed or cancelled.
+     *
+     * @return true if the future is no longer pending
+     */
+    public synchronized boolean isDone() {
+        return this.state != PENDING;
+    }
+
+    /**
+     * Returns whether the future has been cancelled.
+     *
+     * @return true if the future was cancelled
+     */
+    public synchronized boolean isCancelled() {
+        return this.state == CANCELLED;
+    }
+
+    /**
+     * Registers a {@link Listener} that is called when the future is completed.
+     * <p>
+     * If the future has already been completed, the listener is called before this method
+     * returns.
+     *
+     * @param listener a {@link Listener}
+     */
+    public void addListener(Listener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener must not be null");
+        }
+
+        int state;
+
+        synchronized (this) {
+            state = this.state;
+            if (state == PENDING) {
+                if (this.listeners == null) {
+                    this.listeners = new ArrayList<>(1);
+                }
+                this.listeners.add(listener);
+                return;
+            }
+        }
+
+        if (state != CANCELLED) {
+            listener.onComplete(state == PASSED);
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.TextView;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A library of ready-made {@link Criteria.Condition} objects that test the text of a
+ * {@link TextView}.
+ * <p>
+ * Patterns, character sets and word lists are compiled once when the condition is created, not
+ * every time it's evaluated. A condition can be added to any number of {@link Criteria} or
+ * {@link CriteriaTemplate} objects, as long as it's only evaluated on the main UI thread.
+ * These conditions are the only ones
+ * {@link Criteria#offloadSlowConditions(long, java.util.concurrent.TimeUnit)} moves to a worker
+ * thread; an offloaded condition tests a copy of the text taken on the main UI thread and
+ * doesn't share mutable state with evaluations on the main UI thread.
+ * <pre>
+ * {@code
+ *  Criteria.Condition<TextView> validCharacters = Conditions.onlyCharacters(Conditions.LETTERS_AND_DIGITS);
+ *
+ *  new Criteria<EditText>(userNameEditText)
+ *          .test(Conditions.lengthBetween(3, 20), 1)
+ *          .test(validCharacters, 2)
+ *          .test(Conditions.containsNoWord(profanity), 3);
+ * }
+ * </pre>
+ */
+public final class Conditions {
+    /**
+     * The ASCII letters and digits, for use with {@link #onlyCharacters(String)}.
+     */
+    public static final String LETTERS_AND_DIGITS =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    private static final Pattern EMAIL_ADDRESS = Pattern.compile(
+            "[a-zA-Z0-9+._%\\-]{1,256}"
+                    + "@"
+                    + "[a-zA-Z0-9][a-zA-Z0-9\\-]{0,64}"
+                    + "(\\.[a-zA-Z0-9][a-zA-Z0-9\\-]{0,25})+");
+
+    private static final Pattern DECIMAL_NUMBER = Pattern.compile(
+            "[+-]?(\\d+(\\.\\d*)?|\\.\\d+)([eE][+-]?\\d+)?");
+
+    private Conditions() {
+    }
+
+    /**
+     * Returns a condition that passes if the entire text matches a regular expression.
+     *
+     * @param regex the regular expression, compiled once
+     * @return a {@link Criteria.Condition}
+     */
+    public static Criteria.Condition<TextView> matches(String regex) {
+        return matches(Pattern.compile(regex));
+    }
+
+    /**
+     * Returns a condition that passes if the entire text matches a compiled pattern.
+     *
+     * @param pattern a compiled {@link Pattern}
+     * @return a {@link Criteria.Condition}
+     */
+    public static Criteria.Condition<TextView> matches(Pattern pattern) {
+        return new PatternCondition(pattern, true);
+    }
+
+    /**
+     * Returns a condition that passes if any part of the text matches a compiled pattern.
+     *
+     * @param pattern a compiled {@link Pattern}
+     * @return a {@link Criteria.Condition}
+     */
+    public static Criteria.Condition<TextView> containsMatch(Pattern pattern) {
+        return new PatternCondition(pattern, false);
+    }
+
+    /**
+     * Returns a condition that passes if the length of the text is within a range.
+     *
+     * @param min the minimum length, inclusive
+     * @param max the maximum length, inclusive
+     * @return a {@link Criteria.Condition}
+     */
+    public static Criteria.Condition<TextView> lengthBetween(final int min, final int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min must not be greater than max");
+        }
+
+        return new TextCondition() {
+            @Override
+            boolean test(CharSequence text) {
+                return text.length() >= min && text.length() <= max;
+            }
+        };
+    }
+
+    /**
+     * Returns a condition that passes if every character of the text is one of the allowed
+     * characters. An empty text passes.
+     *
+     * @param allowedCharacters every allowed character (ex: {@link #LETTERS_AND_DIGITS})
+     * @return a {@link Criteria.Condition}
+     */
+    public static Criteria.Condition<TextView> onlyCharacters(String allowedCharacters) {
+        final BitSet allowed = characterSet(allowedCharacters);
+
+        return new TextCondition() {
+            @Override
+            boolean test(CharSequence text) {
+                for (int i = 0; i < text.length(); i++) {
+                    if (!allowed.get(text.charAt(i))) {
+                        return false;
+                    }
+                }
+
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns an {@link IncrementalCondition} that passes if every character of the text is one
+     * of the allowed characters. An empty text passes.
+     * <p>
+     * The condition counts the characters that aren't allowed and updates the count from each
+     * edit, so it doesn't rescan the text after every keystroke. It must be added to the view
+     * via {@link TextView#addTextChangedListener(android.text.TextWatcher)}.
+     *
+     * @param allowedCharacters every allowed character (ex: {@link #LETTERS_AND_DIGITS})
+     * @return an {@link IncrementalCondition}
+     *
+     * @see #onlyCharacters(String)
+     */
+    public static IncrementalCondition onlyCharactersIncremental(String allowedCharacters) {
+        final BitSet allowed = characterSet(allowedCharacters);
+
+        return new IncrementalCondition() {
+            private int disallowedCount = 0;
+
+            @Override
+            protected void onReset(CharSequence text) {
+                this.disallowedCount = countDisallowed(text, 0, text.length());
+            }
+
+            @Override
+            protected void onRemoved(CharSequence text, int start, int count) {
+                this.disallowedCount -= countDisallowed(text, start, start + count);
+            }
+
+            @Override
+            protected void onInserted(CharSequence text, int start, int count) {
+                this.disallowedCount += countDisallowed(text, start, start + count);
+            }
+
+            @Override
+            protected boolean isValid(int length) {
+                return this.disallowedCount == 0;
+            }
+
+            private int countDisallowed(CharSequence text, int start, int end) {
+                int count = 0;
+                for (int i = start; i < end; i++) {
+                    if (!allowed.get(text.charAt(i))) {
+                        count++;
+                    }
+                }
+
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Returns an {@link IncrementalCondition} that passes if the length of the text is within a
+     * range, without reading the text after each keystroke.
+     *
+     * @param min the minimum length, inclusive
+     * @param max the maximum length, inclusive
+     * @return an {@link IncrementalCondition}
+     *
+     * @see #lengthBetween(int, int)
+     */
+    public static IncrementalCondition lengthBetweenIncremental(final int min, final int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min must not be greater than max");
+        }
+
+        return new IncrementalCondition() {
+            @Override
+            protected void onReset(CharSequence text) {
+            }
+
+            @Override
+            protected void onRemoved(CharSequence text, int start, int count) {
+            }
+
+            @Override
+            protected void onInserted(CharSequence text, int start, int count) {
+            }
+
+            @Override
+            protected boolean isValid(int length) {
+                return length >= min && length <= max;
+            }
+        };
+    }
+
+    /**
+     * Returns a condition that passes if the text contains at least one of the words, ignoring
+     * case.
+     *
+     * @param words the allowed words
+     * @return a {@link Criteria.Condition}
+     *
+     * @see #containsAnyWord(Collection)
+     */
+    public static Criteria.Condition<TextView> containsAnyWord(String... words) {
+        return containsAnyWord(Arrays.asList(words));
+    }
+
+    /**
+     * Returns a condition that passes if the text contains at least one of the words, ignoring
+     * case.
+     * <p>
+     * The words are compiled into an Aho-Corasick automaton, so the text is matched in linear
+     * time regardless of the number of words.
+     *
+     * @param words the allowed words
+     * @return a {@link Criteria.Condition}
+     */
+    public static Criteria.Condition<TextView> containsAnyWord(Collection<String> words) {
+        return new WordCondition(new WordMatcher(words), true);
+    }
+
+    /**
+     * Returns a condition that passes if the text contains none of the words, ignoring case.
+     *
+     * @param words the denied words
+     * @return a {@link Criteria.Condition}
+     *
+     * @see #containsNoWord(Collection)
+     */
+    public static Criteria.Condition<TextView> containsNoWord(String... words) {
+        return containsNoWord(Arrays.asList(words));
+    }
+
+    /**
+     * Returns a condition that passes if the text contains none of the words, ignoring case.
+     * <p>
+     * The words are compiled into an Aho-Corasick automaton, so a deny list with thousands of
+     * words is matched in linear time.
+     *
+     * @param words the denied words
+     * @return a {@link Criteria.Condition}
+     */
+    public static Criteria.Condition<TextView> containsNoWord(Collection<String> words) {
+        return new WordCondition(new WordMatcher(words), false);
+    }
+
+    /**
+     * Returns a condition that passes if the text is an email address.
+     *
+     * @return a {@link Criteria.Condition}
+     */
+    public static Criteria.Condition<TextView> email() {
+        return new PatternCondition(EMAIL_ADDRESS, true);
+    }
+
+    /**
+     * Returns a condition that passes if the text is a number within a range. Leading and
+     * trailing whitespace is ignored. Only plain decimal text, with an optional sign, fraction
+     * and exponent, is treated as a number; Java literal suffixes, hexadecimal and
+     * {@code Infinity} aren't.
+     *
+     * @param min the minimum value, inclusive
+     * @param max the maximum value, inclusive
+     * @return a {@link Criteria.Condition}
+     */
+    public static Criteria.Condition<TextView> numberBetween(final double min, final double max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min must not be greater than max");
+        }
+
+        return new TextCondition() {
+            @Override
+            boolean test(CharSequence text) {
+                String number = text.toString().trim();
+                if (!DECIMAL_NUMBER.matcher(number).matches()) {
+                    return false;
+                }
+
+                double value = Double.parseDouble(number);
+                return value >= min && value <= max;
+            }
+        };
+    }
+
+    /**
+     * Compiles a string of characters into a set that can be looked up in constant time.
+     *
+     * @param characters every character in the set
+     * @return a {@link BitSet} indexed by character
+     */
+    private static BitSet characterSet(String characters) {
+        BitSet set = new BitSet();
+        for (int i = 0; i < characters.length(); i++) {
+            set.set(characters.charAt(i));
+        }
+
+        return set;
+    }
+
+    /**
+     * A condition that tests the text of a {@link TextView}.
+     */
+    abstract static class TextCondition implements Criteria.Condition<TextView> {
+        @Override
+        public final boolean evaluate(TextView view) {
+            CharSequence text = view.getText();
+
+            return test(text != null ? text : "");
+        }
+
+        /**
+         * Tests the text of the view.
+         *
+         * @param text the text of the view, never null
+         * @return true if the test passed, otherwise false
+         */
+        abstract boolean test(CharSequence text);
+
+        /**
+         * Tests a copy of the text taken on the main UI thread.
+         * <p>
+         * This method is called on a worker thread once the condition has been offloaded, so it
+         * may run at the same time as {@link #test(CharSequence)} and must not use the state
+         * that method reuses.
+         *
+         * @param text a copy of the text of the view, never null
+         * @return true if the test passed, otherwise false
+         */
+        boolean testSnapshot(String text) {
+            return test(text);
+        }
+    }
+
+    /**
+     * Tests the text against a compiled {@link Pattern}.
+     * <p>
+     * The {@link Matcher} is reused between evaluations on the main UI thread. An offloaded
+     * evaluation uses its own.
+     */
+    private static final class PatternCondition extends TextCondition {
+        private final Pattern pattern;
+        private final boolean entireText;
+        private Matcher matcher;
+
+        PatternCondition(Pattern pattern, boolean entireText) {
+            this.pattern = pattern;
+            this.entireText = entireText;
+        }
+
+        @Override
+        boolean test(CharSequence text) {
+            if (this.matcher == null) {
+                this.matcher = this.pattern.matcher(text);
+            } else {
+                this.matcher.reset(text);
+            }
+
+            boolean result = this.entireText ? this.matcher.matches() : this.matcher.find();
+
+            // Don't hold on to the view's text.
+            this.matcher.reset("");
+
+            return result;
+        }
+
+        @Override
+        boolean testSnapshot(String text) {
+            Matcher matcher = this.pattern.matcher(text);
+
+            return this.entireText ? matcher.matches() : matcher.find();
+        }
+    }
+
+    /**
+     * Tests the text against a {@link WordMatcher}.
+     */
+    private static final class WordCondition extends TextCondition {
+        private final WordMatcher wordMatcher;
+        private final boolean required;
+
+        WordCondition(WordMatcher wordMatcher, boolean required) {
+            this.wordMatcher = wordMatcher;
+            this.required = required;
+        }
+
+        @Override
+        boolean test(CharSequence text) {
+            return this.wordMatcher.containsAny(text) == this.required;
+        }
+    }
+}
@@ -5,12 +5,17 @@ import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
 import android.view.View;
+import android.widget.TextView;
 
+import java.lang.ref.WeakReference;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class contains a collection conditions that are tested to determine if a view is valid.
@@ -26,11 +31,40 @@ import java.util.concurrent.ThreadLocalRandom;
  */
 public class Criteria<T extends View> {
     private int asyncConditionsComplete = 0;
+    private int asyncConditionsStarted = 0;
+    private boolean failFast = false;
+    private int generation = 0;
+    private long staleCompletionCount = 0;
+    private boolean evaluating = false;
+    private final boolean bound;
+    private ConditionEntry<T>[] frozenConditions;
     private Validator.ValidationResult validationResult = Validator.ValidationResult.Valid;
+    private long failedConditions = 0;
+    private int conditionCount = 0;
     private EvalCompleteListener evalCompleteListener;
-    final private T validatedView;
-    final private Set<Condition<T>> conditions;
-    final private Set<AsyncCondition<T>> asyncConditions;
+    private AsyncConditionExecutor executor;
+    private Scheduler scheduler;
+    private long timeoutNanos = 0;
+    private Validator.ValidationResult timeoutOutcome;
+    private long evaluationStartNanos;
+    private ValidationMetrics metrics;
+    private boolean timeoutScheduled = false;
+    private long timeoutCount = 0;
+    private long offloadBudgetNanos = 0;
+    private final Runnable evaluationTimeout = new Runnable() {
+        @Override
+        public void run() {
+            timeoutScheduled = false;
+            onEvaluationTimeout();
+        }
+    };
+    final private WeakReference<T> validatedView;
+    final private Set<Condition<? super T>> conditions;
+    final private List<ConditionEntry<T>> orderedConditions;
+    final private List<AsyncCondition<T>> asyncConditions;
+    final private List<Integer> asyncConditionIndexes;
+    final private List<OffloadedCondition<T>> offloadedConditions;
+    final private List<WeakReference<View>> dependencies = new ArrayList<>();
     final private Criteria<T> criteria;
 
     /**
@@ -91,31 +125,226 @@ public class Criteria<T extends View> {
      * @param <T> the type of {@link View} being validated
      */
     public static abstract class AsyncCondition<T> {
+        private static final ThreadLocal<AsyncCondition<?>.Run> currentRun = new ThreadLocal<>();
+        private static Handler resultHandler;
         private boolean cancelled = false;
         private AsyncTask asyncTask;
-        private Criteria criteria;
-        private final Handler handler;
-        private Thread thread;
+        private Criteria<?> criteria;
+        private AsyncConditionExecutor executor;
+        private AsyncConditionExecutor.Task task;
+        private volatile Run latestRun;
+        private int generation;
+        private KeyExtractor<T> keyExtractor;
+        private ResultCache resultCache;
+        private Object singleFlightIdentity;
+        private SingleFlight.Flight flight;
+        private Object pendingKey;
+        private Object pendingInput;
+        private boolean inputExtracted = false;
+        private long timeoutNanos = 0;
+        private Validator.ValidationResult timeoutOutcome;
+        private boolean awaitingResult = false;
+        private Scheduler timeoutScheduler;
+        private long timeoutCount = 0;
+        private long startNanos;
+        private String sectionName;
+        private final Runnable timeoutRunnable = new Runnable() {
+            @Override
+            public void run() {
+                onTimeout();
+            }
+        };
         private Message message;
 
         /**
-         * Class constructor that creates a new {@link Handler} which will be used for communicating
-         * the response to the main UI thread after the asynchronous operation is complete.
+         * Class constructor.
+         * <p>
+         * Results are communicated to the main UI thread by a single {@link Handler} shared by
+         * every asynchronous condition, so creating a condition doesn't create a handler.
          * <p>
          * To learn about communicating with the UI thread, see "Communicating with the UI Thread":
          * https://developer.android.com/training/multiple-threads/communicate-ui.html
          *
-         * @see #asyncConditionComplete(boolean)
+         * @see #complete(boolean)
          */
         public AsyncCondition() {
-            this.handler = new Handler(Looper.getMainLooper()) {
-                @Override
-                public void handleMessage(Message inputMessage) {
-                    if (!cancelled) {
-                        criteria.asyncConditionComplete((boolean) inputMessage.obj);
-                    }
-                }
-            };
+        }
+
+        /**
+         * Returns the {@link Handler} that delivers results to the main UI thread, creating it
+         * the first time it's requested.
+         *
+         * @return the shared {@link ResultHandler}
+         */
+        private static synchronized Handler getResultHandler() {
+            if (resultHandler == null) {
+                resultHandler = new ResultHandler();
+            }
+
+            return resultHandler;
+        }
+
+        /**
+         * Caches the results of this condition.
+         * <p>
+         * The key extractor is invoked on the main UI thread each time the condition is about to
+         * be evaluated. If a fresh result is cached for the key, the condition completes
+         * immediately with that result and {@link #evaluate(Object)} isn't invoked.
+         * <pre>
+         * {@code
+         *  asyncCondition.memoize(new Criteria.KeyExtractor<EditText>() {
+         *      public Object extractKey(EditText view) {
+         *          return view.getText().toString();
+         *      }
+         *  }, 100, 1, TimeUnit.MINUTES);
+         * }
+         * </pre>
+         *
+         * @param keyExtractor a {@link KeyExtractor} that returns the input the result depends on
+         * @param maxSize the maximum number of results kept
+         * @param ttl how long a result is kept
+         * @param unit the {@link TimeUnit} of the time to live
+         * @return this {@link AsyncCondition} instance
+         */
+        public final AsyncCondition<T> memoize(KeyExtractor<T> keyExtractor, int maxSize, long ttl, TimeUnit unit) {
+            this.keyExtractor = keyExtractor;
+            this.resultCache = new ResultCache(maxSize, ttl, unit);
+            return this;
+        }
+
+        /**
+         * Shares in-flight evaluations of this condition with other conditions that have the same
+         * identity.
+         * <p>
+         * The key extractor is invoked on the main UI thread each time the condition is about to
+         * be evaluated. If a condition with the same identity is already evaluating the same key,
+         * this condition waits for that result instead of starting its own evaluation. The shared
+         * evaluation is only cancelled once every condition waiting on it has been cancelled.
+         * <p>
+         * For example, a username availability check used by both a sign up field and a
+         * <i>suggest a name</i> field can share a single query of the web service.
+         * <p>
+         * If {@link #memoize(KeyExtractor, int, long, TimeUnit)} is also called, the most recently
+         * supplied {@link KeyExtractor} is used for both.
+         *
+         * @param identity an object identifying what the condition tests, shared by all
+         * conditions that test the same thing (ex: "username-available")
+         * @param keyExtractor a {@link KeyExtractor} that returns the input the result depends on
+         * @return this {@link AsyncCondition} instance
+         */
+        public final AsyncCondition<T> singleFlight(Object identity, KeyExtractor<T> keyExtractor) {
+            this.singleFlightIdentity = identity;
+            this.keyExtractor = keyExtractor;
+            return this;
+        }
+
+        /**
+         * Returns the {@link ResultCache} created by
+         * {@link #memoize(KeyExtractor, int, long, TimeUnit)}.
+         *
+         * @return the {@link ResultCache} or null if results aren't cached
+         */
+        public final ResultCache getResultCache() {
+            return this.resultCache;
+        }
+
+        /**
+         * Completes the condition with a fixed outcome if {@link #complete(boolean)} isn't called
+         * in time.
+         * <p>
+         * When the timeout elapses the evaluation is cancelled (see
+         * {@link #getCancellationToken()}), the
+         * condition completes with the supplied outcome and a late call to
+         * {@link #complete(boolean)} is ignored. {@link Validator.ValidationResult#Unknown} lets
+         * observers distinguish <i>couldn't check</i> from <i>invalid</i>.
+         * <p>
+         * {@link #getRemainingTime(TimeUnit)} reports how much of the timeout is left while
+         * {@link #evaluate(Object)} runs.
+         *
+         * @param timeout the maximum time to wait for {@link #complete(boolean)}
+         * @param unit the {@link TimeUnit} of the timeout
+         * @param outcome the result of the condition if the timeout elapses
+         * @return this {@link AsyncCondition} instance
+         *
+         * @see Criteria#timeout(long, TimeUnit, Validator.ValidationResult)
+         */
+        public final AsyncCondition<T> timeout(long timeout, TimeUnit unit, Validator.ValidationResult outcome) {
+            if (timeout <= 0) {
+                throw new IllegalArgumentException("timeout must be positive");
+            }
+
+            if (outcome == null) {
+                throw new IllegalArgumentException("outcome must not be null");
+            }
+
+            this.timeoutNanos = unit.toNanos(timeout);
+            this.timeoutOutcome = outcome;
+            return this;
+        }
+
+        /**
+         * Returns the number of evaluations of this condition that timed out.
+         *
+         * @return the number of timeouts
+         *
+         * @see #timeout(long, TimeUnit, Validator.ValidationResult)
+         */
+        public final long getTimeoutCount() {
+            return this.timeoutCount;
+        }
+
+        /**
+         * Returns how much time is left before the evaluation times out.
+         * <p>
+         * The deadline is the earlier of this condition's timeout and the timeout of the
+         * enclosing {@link Criteria}. This method is intended to be called in
+         * {@link #evaluate(Object)}, for example to set the timeout of a network request.
+         *
+         * @param unit the {@link TimeUnit} of the returned value
+         * @return the remaining time, 0 if the deadline has passed, or {@link Long#MAX_VALUE} if
+         * there is no timeout
+         */
+        protected final long getRemainingTime(TimeUnit unit) {
+            AsyncCondition<?>.Run run = currentRun.get();
+            if (run == null) {
+                run = this.latestRun;
+            }
+
+            if (run == null || run.budgetNanos == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+
+            long remaining = run.budgetNanos - (System.nanoTime() - run.startNanos);
+
+            return unit.convert(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Returns the {@link CancellationToken} of the evaluation.
+         * <p>
+         * The token is cancelled when the evaluation is superseded by a newer one, cancelled via
+         * {@link Criteria#cancelValidation()} or times out. The thread running
+         * {@link #evaluate(Object)} is not interrupted, so long-running work should check the
+         * token, or register a {@link CancellationToken.Listener}, and return early. A result
+         * supplied to {@link #complete(boolean)} after cancellation is dropped.
+         * <p>
+         * This method is intended to be called in {@link #evaluate(Object)}. If called from
+         * another thread, the token of the most recently started evaluation is returned.
+         *
+         * @return the {@link CancellationToken} of the evaluation
+         * @throws IllegalStateException if the condition has never been evaluated
+         */
+        protected final CancellationToken getCancellationToken() {
+            AsyncCondition<?>.Run run = currentRun.get();
+            if (run == null) {
+                run = this.latestRun;
+            }
+
+            if (run == null) {
+                throw new IllegalStateException("The condition has not been evaluated");
+            }
+
+            return run.cancellationToken;
         }
 
         /**
@@ -123,14 +352,36 @@ public class Criteria<T extends View> {
          * <p>
          * This method should be called be called in the overridden {@link #evaluate(Object)}
          * method.
+         * <p>
+         * The result is stamped with the generation of the evaluation that produced it. If
+         * {@link #complete(boolean)} is called from the thread running {@link #evaluate(Object)},
+         * that evaluation is known exactly; otherwise the most recently started evaluation is
+         * assumed.
          *
          * @param result true if the test passed, otherwise false
          */
         protected final void complete(boolean result) {
+            AsyncCondition<?>.Run run = currentRun.get();
+            if (run == null) {
+                run = this.latestRun;
+            }
+
+            complete(run, result);
+        }
 
+        /**
+         * Sends the result of an evaluation to the main UI thread.
+         *
+         * @param run the evaluation that produced the result, or null if unknown
+         * @param result true if the test passed, otherwise false
+         */
+        final void complete(AsyncCondition<?>.Run run, boolean result) {
             // Send the result to the handler which will notify the Criteria object on the main UI thread.
+            // The result is passed as a primitive so nothing is allocated besides the pooled message.
             this.message = makeMessage();
-            message.obj = result;
+            message.arg1 = run != null ? run.generation : this.generation;
+            message.arg2 = result ? 1 : 0;
+            message.obj = run != null && run.flight != null ? run.flight : this;
             message.sendToTarget();
         }
 
@@ -144,12 +395,15 @@ public class Criteria<T extends View> {
         /**
          * Perform a test using data from the view being evaluated.
          * <p>
-         * Any code included in this method will be executed on a separate thread. After the
-         * data has been evaluated call {@link #complete(boolean)} to notify the Criteria
-         * object that the asynchronous operation is complete.
+         * Any code included in this method will be executed on a worker thread of an
+         * {@link AsyncConditionExecutor}. After the data has been evaluated call
+         * {@link #complete(boolean)} to notify the Criteria object that the asynchronous
+         * operation is complete.
          * <p>
-         * If {@link #complete(boolean)} is not executed, then
+         * If {@link #complete(boolean)} is not executed and no timeout is set, then
          * {@link EvalCompleteListener#onComplete(Validator.ValidationResult)} will never be invoked.
+         * See {@link #timeout(long, TimeUnit, Validator.ValidationResult)}. If this method throws an
+         * exception, the condition fails.
          *
          * @param view
          */
@@ -165,204 +419,1557 @@ public class Criteria<T extends View> {
          */
         final void cancel() {
             cancelled = true;
-            if (this.thread != null) {
-                this.thread.interrupt();
-            }
+            clearPendingInput();
+            release();
             this.onCancelled();
         }
 
         /**
-         * Executes {@link #evaluate(Object)} inside of a new {@link Thread}.
+         * Cancels the asynchronous operation because a newer evaluation will replace it.
+         * <p>
+         * Unlike {@link #cancel()}, {@link #onCancelled()} is not invoked.
+         */
+        final void supersede() {
+            cancelled = true;
+            clearPendingInput();
+            release();
+        }
+
+        /**
+         * Submits {@link #evaluate(Object)} to the {@link AsyncConditionExecutor} of the
+         * enclosing {@link Criteria} object.
+         * <p>
+         * If the executor rejects the evaluation, the condition completes as
+         * {@link Validator.ValidationResult#Unknown}. If
+         * {@link #singleFlight(Object, KeyExtractor)} was called and an evaluation of the same
+         * input is already in flight, the condition subscribes to it instead.
          *
          * @param criteria the instance of the enclosing {@link Criteria} object
          * @param view the {@link View} being validated
+         * @param generation the generation of the evaluation started by the {@link Criteria}
          */
-        final void initEvaluate(final Criteria criteria, final T view) {
+        final void initEvaluate(final Criteria<?> criteria, final T view, final int generation) {
             cancelled = false;
             this.criteria = criteria;
+            this.generation = generation;
 
-            // Kill the current thread to prevent a race condition.
-            if (this.thread != null) {
-                this.thread.interrupt();
-            }
+            // Take the input kept by getCachedResult() before any path can return early.
+            Object pendingInput = this.pendingInput;
+            boolean inputExtracted = this.inputExtracted;
+            clearPendingInput();
 
+            // Cancel the current evaluation to prevent a race condition.
+            release();
 
-            this.thread = new Thread(new Runnable() {
-                @Override
-                public void run() {
-                    evaluate(view);
+            this.awaitingResult = true;
+            this.startNanos = System.nanoTime();
+            if (this.timeoutNanos > 0) {
+                this.timeoutScheduler = criteria.getScheduler();
+                this.timeoutScheduler.postDelayed(this.timeoutRunnable, TimeUnit.NANOSECONDS.toMillis(this.timeoutNanos));
+            }
+
+            boolean shared = this.singleFlightIdentity != null && this.pendingKey != null;
+            if (shared) {
+                SingleFlight.Flight inFlight = SingleFlight.find(this.singleFlightIdentity, this.pendingKey);
+                if (inFlight != null) {
+                    this.flight = inFlight;
+                    inFlight.subscribe(this, generation);
+                    return;
                 }
-            });
-            thread.start();
+            }
+
+            Object input = inputExtracted ? pendingInput : extractInput(view);
+
+            long budgetNanos = criteria.getRemainingTimeoutNanos();
+            if (this.timeoutNanos > 0) {
+                budgetNanos = Math.min(budgetNanos, this.timeoutNanos);
+            }
+
+            this.executor = criteria.getExecutor();
+            Run run = new Run(input, generation, budgetNanos, criteria.getMetrics(), this.executor, criteria);
+            if (shared) {
+                this.flight = SingleFlight.start(this.singleFlightIdentity, this.pendingKey, run, this.executor);
+                this.flight.subscribe(this, generation);
+                run.flight = this.flight;
+            } else {
+                this.task = run;
+            }
+
+            this.latestRun = run;
+            if (runsOnExecutor()) {
+                this.executor.execute(run);
+            } else {
+                run.run();
+            }
         }
 
         /**
-         * Returns a new message from the global message pool.
-         * <p>
-         * For testing.
-         *
-         * @return
+         * Returns whether {@link #evaluateInput(Object)} is submitted to the
+         * {@link AsyncConditionExecutor}.
          *
-         * @see Handler#obtainMessage()
+         * @return true, unless overridden by {@link FutureCondition}
          */
-        Message makeMessage() {
-            return this.handler.obtainMessage();
+        boolean runsOnExecutor() {
+            return true;
         }
-    }
-
-    /**
-     * This interface is supplied to the {@link Criteria#evaluate(EvalCompleteListener)}
-     * method and receives the final validation result after all conditions in a criteria object
-     * have been completed their tests.
-     */
-    public interface EvalCompleteListener {
 
         /**
-         * This method is called after all conditions of the criteria
-         * have been tested.
+         * Receives the result of a shared evaluation on the main UI thread.
          *
-         * @param validationResult the result after all conditions have been tested
+         * @param flight the shared evaluation
+         * @param generation the generation of this condition's evaluation when it subscribed
+         * @param result the result of testing the condition
          */
-        void onComplete(Validator.ValidationResult validationResult);
-    }
+        final void onFlightResult(SingleFlight.Flight flight, int generation, boolean result) {
+            if (this.flight == flight) {
+                this.flight = null;
+            }
 
-    /**
-     * Class constructor specifying the view being validated.
-     *
-     * @param validatedView the {@link View} being validated
-     */
-    public Criteria(T validatedView) {
-        this.validatedView = validatedView;
-        this.conditions = new HashSet<>();
-        this.asyncConditions = new HashSet<>();
-        this.criteria = this;
-    }
+            onResult(generation, result);
+        }
 
-    /**
-     * Adds an {@link AsyncCondition} to be tested.
-     * <p>
-     * For example, the asynchronous operation could evaluate whether a
-     * username is available.
-     *
-     * @param asyncCondition a condition that performs an asynchronous operation
-     * @return this {@link Criteria} instance
-     *
-     * @see AsyncCondition
-     * @see Condition
-     */
-    public Criteria<T> asyncTest(AsyncCondition<T> asyncCondition) {
-        this.asyncConditions.add(asyncCondition);
-        return this;
-    }
+        /**
+         * Looks up a cached result for the current state of the view.
+         * <p>
+         * This method is called on the main UI thread before
+         * {@link #initEvaluate(Criteria, Object, int)}. The key is kept so the following
+         * evaluation can be shared and have its result cached. If there is no cached result, a
+         * snapshot taken by {@link #extractInput(Object)} is also kept so it isn't taken twice;
+         * the view itself is never kept.
+         *
+         * @param view the {@link View} being validated
+         * @return the cached result or null if there isn't one
+         */
+        final Boolean getCachedResult(T view) {
+            Object input = extractInput(view);
+            this.pendingKey = this.keyExtractor != null
+                    ? this.keyExtractor.extractKey(view)
+                    : defaultKey(input);
 
-    /**
-     * Adds a {@link Condition} to be tested.
-     * <p>
-     * For example, the synchronous operation could evaluate whether a username contains valid
-     * characters.
-     *
-     * @param condition a condition that can be tested immediately
-     * @return this {@link Criteria} instance
-     *
-     * @see AsyncCondition
-     * @see Condition
-     */
-    public Criteria<T> test(Condition<T> condition) {
-        this.conditions.add(condition);
-        return this;
-    }
+            if (this.resultCache != null && this.pendingKey != null) {
+                Boolean cachedResult = this.resultCache.get(this.pendingKey);
+                if (cachedResult != null) {
+                    return cachedResult;
+                }
+            }
 
+            if (input != view) {
+                this.pendingInput = input;
+                this.inputExtracted = true;
+            }
 
-    /**
-     * Evaluates all {@link Condition} and {@link AsyncCondition} objects associated with
-     * this instance.
-     *
-     * @param evalCompleteListener an {@link EvalCompleteListener} that will handle the final result
-     */
-    void evaluate(EvalCompleteListener evalCompleteListener) {
-        this.evalCompleteListener = evalCompleteListener;
+            return null;
+        }
 
-        // Initiate all asynchronous evaluations.
-        evaluateAsyncConditions();
+        /**
+         * Drops the input kept by {@link #getCachedResult(Object)}.
+         */
+        private void clearPendingInput() {
+            this.pendingInput = null;
+            this.inputExtracted = false;
+        }
 
-        // Perform all synchronous evaluations.
-        evaluateConditions();
+        /**
+         * Returns the input kept for the next evaluation.
+         * <p>
+         * For testing.
+         *
+         * @return the input kept by {@link #getCachedResult(Object)} or null
+         */
+        final Object getPendingInput() {
+            return this.pendingInput;
+        }
 
-        // Only complete if there aren't any AsyncCondition objects still running.
-        if (this.asyncConditions.size() == 0) {
-            complete();
+        /**
+         * Receives the result of an evaluation owned by this condition on the main UI thread.
+         *
+         * @param generation the generation of the evaluation that produced the result
+         * @param result the result of testing the condition
+         */
+        final void onOwnResult(int generation, boolean result) {
+            if (!this.cancelled) {
+                onResult(generation, result);
+            }
         }
-    }
 
-    /**
-     * Evaluate all synchronous conditions.
-     */
-    void evaluateConditions() {
-        for (Condition<T> condition : this.conditions) {
-            setValidationResult(condition.evaluate(this.validatedView));
+        /**
+         * Returns the input handed to the worker thread. This method is called on the main UI
+         * thread.
+         *
+         * @param view the {@link View} being validated
+         * @return the view itself, unless overridden by {@link SnapshotAsyncCondition}
+         */
+        Object extractInput(T view) {
+            return view;
         }
-    }
 
-    /**
-     * Initiate all asynchronous conditions.
-     */
-    void evaluateAsyncConditions() {
-        for (AsyncCondition<T> asyncCondition : this.asyncConditions) {
-            asyncCondition.initEvaluate(this, this.validatedView);
+        /**
+         * Evaluates the input returned by {@link #extractInput(Object)} on a worker thread.
+         *
+         * @param input the extracted input
+         */
+        @SuppressWarnings("unchecked")
+        void evaluateInput(Object input) {
+            evaluate((T) input);
         }
-    }
 
-    void cancelValidation() {
-        for (AsyncCondition<T> asyncCondition : this.asyncConditions) {
-            asyncCondition.cancel();
+        /**
+         * Returns the key used to cache and share results when no {@link KeyExtractor} was
+         * supplied.
+         *
+         * @param input the input returned by {@link #extractInput(Object)}
+         * @return null, unless overridden by {@link SnapshotAsyncCondition}
+         */
+        Object defaultKey(Object input) {
+            return null;
         }
-    }
 
-    /**
-     * Returns all {@link Condition} objects added to this instance.
-     * <p>
-     * For testing.
-     * @return all {@link Condition} objects added to this instance
-     */
-    Set<Condition<T>> getConditions() {
-        return Collections.unmodifiableSet(this.conditions);
-    }
+        /**
+         * Delivers a result to the enclosing {@link Criteria} object on the main UI thread,
+         * caching it first if it belongs to the latest evaluation of this condition.
+         *
+         * @param generation the generation of the evaluation that produced the result
+         * @param result the result of testing the condition
+         */
+        final void onResult(int generation, boolean result) {
+            if (generation == this.generation) {
+                if (!this.awaitingResult) {
+                    // The evaluation already timed out.
+                    return;
+                }
 
-    /**
-     * Returns all {@link AsyncCondition} objects added to this instance.
-     * <p>
-     * For testing.
-     * @return all {@link AsyncCondition} objects added to this instance
-     */
-    Set<AsyncCondition<T>> getAsyncConditions() {
-        return Collections.unmodifiableSet(this.asyncConditions);
-    }
+                disarmTimeout();
 
-    /**
-     * This method is called when {@link AsyncCondition#complete(boolean)} is invoked.
-     *
-     * @param result the result of testing the condition
-     *
-     * @see AsyncCondition
-     */
-    void asyncConditionComplete(boolean result) {
-        this.asyncConditionsComplete++;
-        setValidationResult(result);
+                if (this.resultCache != null && this.pendingKey != null) {
+                    this.resultCache.put(this.pendingKey, result);
+                }
 
-        complete();
-    }
+                ValidationMetrics metrics = this.criteria.getMetrics();
+                if (metrics.isEnabled()) {
+                    metrics.onAsyncConditionComplete(this, result, System.nanoTime() - this.startNanos);
+                }
+            }
 
-    /**
-     * This method is called by {@link #evaluate(EvalCompleteListener)} and/or
-     * {@link #asyncConditionComplete(boolean)} after all synchronous and/or asynchronous conditions
-     * have completed their tests.
-     */
-    private void complete() {
-        if (this.asyncConditions.size() == asyncConditionsComplete) {
-            this.evalCompleteListener.onComplete(this.validationResult);
-            reset();
+            this.criteria.asyncConditionComplete(this, generation, result);
         }
-    }
+
+        /**
+         * Receives the rejection of a shared evaluation on the main UI thread.
+         *
+         * @param flight the shared evaluation
+         * @param generation the generation of this condition's evaluation when it subscribed
+         */
+        final void onFlightRejected(SingleFlight.Flight flight, int generation) {
+            if (this.flight == flight) {
+                this.flight = null;
+            }
+
+            onRejected(generation);
+        }
+
+        /**
+         * Completes the condition as {@link Validator.ValidationResult#Unknown} on the main UI
+         * thread because the {@link AsyncConditionExecutor} didn't run the evaluation.
+         *
+         * @param generation the generation of the evaluation that was rejected
+         */
+        final void onRejected(int generation) {
+            if (generation != this.generation || !this.awaitingResult) {
+                return;
+            }
+
+            release();
+            this.criteria.asyncConditionRejected(this, generation);
+        }
+
+        /**
+         * Completes the condition with the timeout outcome on the main UI thread.
+         */
+        private void onTimeout() {
+            if (!this.awaitingResult || this.cancelled) {
+                return;
+            }
+
+            this.awaitingResult = false;
+            this.timeoutCount++;
+            release();
+            this.criteria.asyncConditionTimedOut(this, this.generation, this.timeoutOutcome);
+        }
+
+        /**
+         * Stops waiting for a result and removes the pending timeout, if any.
+         */
+        private void disarmTimeout() {
+            this.awaitingResult = false;
+
+            if (this.timeoutScheduler != null) {
+                this.timeoutScheduler.cancel(this.timeoutRunnable);
+                this.timeoutScheduler = null;
+            }
+        }
+
+        /**
+         * Stops waiting on the evaluation started by {@link #initEvaluate(Criteria, Object, int)}.
+         * <p>
+         * An evaluation owned by this condition is cancelled and removed from the executor's
+         * queue if it hasn't started yet. A shared evaluation is only cancelled once no other
+         * condition is waiting on it.
+         */
+        private void release() {
+            disarmTimeout();
+
+            if (this.flight != null) {
+                SingleFlight.Flight flight = this.flight;
+                this.flight = null;
+                flight.unsubscribe(this);
+            }
+
+            if (this.task != null) {
+                this.task.cancel(false);
+                this.executor.remove(this.task);
+                this.task = null;
+            }
+        }
+
+        /**
+         * A single evaluation of the condition submitted to an {@link AsyncConditionExecutor}.
+         * <p>
+         * While {@link #evaluate(Object)} runs, the run is published to the worker thread so that
+         * {@link #complete(boolean)} can stamp the result with the right generation.
+         */
+        private final class Run extends AsyncConditionExecutor.Task {
+            final int generation;
+            final long startNanos;
+            final long budgetNanos;
+            final ValidationMetrics metrics;
+            final AsyncConditionExecutor executor;
+            final Criteria<?> criteria;
+            SingleFlight.Flight flight;
+
+            Run(final Object input, final int generation, final long budgetNanos,
+                final ValidationMetrics metrics, final AsyncConditionExecutor executor,
+                final Criteria<?> criteria) {
+                super(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            evaluateInput(input);
+                        } catch (Throwable throwable) {
+                            // FutureTask swallows the exception, which would leave the evaluation pending.
+                            complete(false);
+                        }
+                    }
+                });
+                this.generation = generation;
+                this.startNanos = System.nanoTime();
+                this.budgetNanos = budgetNanos;
+                this.metrics = metrics;
+                this.executor = executor;
+                this.criteria = criteria;
+            }
+
+            /**
+             * Returns the {@link CancellationToken} of this evaluation.
+             *
+             * @return the {@link CancellationToken} of this evaluation
+             */
+            CancellationToken getCancellationToken() {
+                return this.cancellationToken;
+            }
+
+            @Override
+            public void run() {
+                if (this.metrics.isEnabled()) {
+                    this.metrics.onAsyncConditionStarted(AsyncCondition.this, getQueueWaitNanos(),
+                            this.executor.getActiveCount());
+                }
+
+                ValidationTracer tracer = ValidationTracer.getDefault();
+                tracer.beginSection(ValidationTracer.ASYNC_EVALUATE_SECTION);
+                tracer.beginSection(getSectionName());
+                currentRun.set(this);
+                try {
+                    super.run();
+                } finally {
+                    currentRun.remove();
+                    tracer.endSection();
+                    tracer.endSection();
+                }
+            }
+
+            @Override
+            void onRejected() {
+                // The executor may reject this run while submitting an unrelated one, so the
+                // outcome is delivered on the main UI thread like a timeout.
+                this.criteria.getScheduler().postDelayed(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (flight != null) {
+                            flight.reject();
+                        } else {
+                            AsyncCondition.this.onRejected(generation);
+                        }
+                    }
+                }, 0);
+            }
+        }
+
+        /**
+         * Returns the name of the trace section of this condition.
+         *
+         * @return the name of the trace section
+         */
+        final String getSectionName() {
+            if (this.sectionName == null) {
+                this.sectionName = ValidationTracer.sectionName(this);
+            }
+
+            return this.sectionName;
+        }
+
+        /**
+         * Returns a new message from the global message pool.
+         * <p>
+         * For testing.
+         *
+         * @return
+         *
+         * @see Handler#obtainMessage()
+         */
+        Message makeMessage() {
+            return getResultHandler().obtainMessage();
+        }
+
+        /**
+         * Delivers the results of every {@link AsyncCondition} on the main UI thread.
+         * <p>
+         * The message carries the generation in {@link Message#arg1}, the result in
+         * {@link Message#arg2} and either the {@link AsyncCondition} or the shared
+         * {@link SingleFlight.Flight} that produced it in {@link Message#obj}.
+         */
+        private static final class ResultHandler extends Handler {
+            ResultHandler() {
+                super(Looper.getMainLooper());
+            }
+
+            @Override
+            public void handleMessage(Message inputMessage) {
+                boolean result = inputMessage.arg2 == 1;
+                ValidationTracer tracer = ValidationTracer.getDefault();
+
+                tracer.beginSection(ValidationTracer.ASYNC_COMPLETE_SECTION);
+                try {
+                    if (inputMessage.obj instanceof SingleFlight.Flight) {
+                        // A shared evaluation delivers its result to every subscriber.
+                        ((SingleFlight.Flight) inputMessage.obj).finish(result);
+                    } else {
+                        ((AsyncCondition<?>) inputMessage.obj).onOwnResult(inputMessage.arg1, result);
+                    }
+                } finally {
+                    tracer.endSection();
+                }
+            }
+        }
+    }
+
+    /**
+     * An asynchronous condition that never touches the view off the main UI thread.
+     * <p>
+     * {@link #snapshot(Object)} is called once on the main UI thread each time the condition is
+     * evaluated and must return an immutable copy of the input the test depends on (ex: the
+     * view's text as a {@link String}). Only the snapshot is handed to
+     * {@link #evaluateSnapshot(Object)} on a worker thread, so the evaluation can't race with the
+     * user editing the view.
+     * <p>
+     * The snapshot also serves as the key for {@link #memoize(int, long, TimeUnit)} and
+     * {@link #singleFlight(Object)}, so it must implement {@link Object#equals(Object)} and
+     * {@link Object#hashCode()}.
+     * <pre>
+     * {@code
+     *  new Criteria.SnapshotAsyncCondition<EditText, String>() {
+     *      protected String snapshot(EditText view) {
+     *          return view.getText().toString();
+     *      }
+     *
+     *      protected void evaluateSnapshot(String userName) {
+     *          complete(userRepository.isAvailable(userName));
+     *      }
+     *
+     *      protected void onCancelled() {
+     *      }
+     *  }.memoize(50, 1, TimeUnit.MINUTES);
+     * }
+     * </pre>
+     *
+     * @param <T> the type of {@link View} being validated
+     * @param <I> the type of the immutable snapshot
+     */
+    public static abstract class SnapshotAsyncCondition<T, I> extends AsyncCondition<T> {
+
+        /**
+         * Copies the input the test depends on from the view.
+         * <p>
+         * This method is called on the main UI thread.
+         *
+         * @param view the {@link View} being validated
+         * @return an immutable snapshot of the input
+         */
+        protected abstract I snapshot(T view);
+
+        /**
+         * Performs the test using the snapshot.
+         * <p>
+         * Any code included in this method will be executed on a worker thread of an
+         * {@link AsyncConditionExecutor}. After the snapshot has been evaluated call
+         * {@link #complete(boolean)}.
+         *
+         * @param snapshot the value returned by {@link #snapshot(Object)}
+         */
+        protected abstract void evaluateSnapshot(I snapshot);
+
+        /**
+         * Caches the results of this condition using the snapshot as the key.
+         *
+         * @param maxSize the maximum number of results kept
+         * @param ttl how long a result is kept
+         * @param unit the {@link TimeUnit} of the time to live
+         * @return this {@link SnapshotAsyncCondition} instance
+         *
+         * @see AsyncCondition#memoize(KeyExtractor, int, long, TimeUnit)
+         */
+        public final SnapshotAsyncCondition<T, I> memoize(int maxSize, long ttl, TimeUnit unit) {
+            memoize(null, maxSize, ttl, unit);
+            return this;
+        }
+
+        /**
+         * Shares in-flight evaluations of the same snapshot with other conditions that have the
+         * same identity.
+         *
+         * @param identity an object identifying what the condition tests
+         * @return this {@link SnapshotAsyncCondition} instance
+         *
+         * @see AsyncCondition#singleFlight(Object, KeyExtractor)
+         */
+        public final SnapshotAsyncCondition<T, I> singleFlight(Object identity) {
+            singleFlight(identity, null);
+            return this;
+        }
+
+        /**
+         * Evaluates a snapshot of the view on the calling thread.
+         * <p>
+         * The {@link Criteria} never calls this method; it takes the snapshot on the main UI
+         * thread and calls {@link #evaluateSnapshot(Object)} on a worker thread instead.
+         *
+         * @param view the {@link View} being validated
+         */
+        @Override
+        protected final void evaluate(T view) {
+            evaluateSnapshot(snapshot(view));
+        }
+
+        @Override
+        final Object extractInput(T view) {
+            return snapshot(view);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        final void evaluateInput(Object input) {
+            evaluateSnapshot((I) input);
+        }
+
+        @Override
+        final Object defaultKey(Object input) {
+            return input;
+        }
+    }
+
+    /**
+     * An asynchronous condition that returns a {@link ConditionFuture} instead of blocking a
+     * thread until its result is known.
+     * <p>
+     * {@link #evaluateFuture(Object)} is called on the main UI thread and must return without
+     * blocking, for example after starting a request with a non-blocking HTTP client whose
+     * callback completes the future. No worker thread of the {@link AsyncConditionExecutor} is
+     * occupied while the future is pending, so many conditions can wait at the same time.
+     * <p>
+     * When the evaluation is cancelled, superseded or times out, the future is cancelled.
+     * {@link #getCancellationToken()} can be used to stop the underlying request. Caching and
+     * sharing via {@link #memoize(KeyExtractor, int, long, TimeUnit)} and
+     * {@link #singleFlight(Object, KeyExtractor)} work as they do for any {@link AsyncCondition}.
+     * <pre>
+     * {@code
+     *  new Criteria.FutureCondition<EditText>() {
+     *      protected ConditionFuture evaluateFuture(EditText view) {
+     *          final ConditionFuture future = new ConditionFuture();
+     *          userService.isAvailable(view.getText().toString(), new Callback<Boolean>() {
+     *              public void onResponse(Boolean available) {
+     *                  future.complete(available);
+     *              }
+     *          });
+     *          return future;
+     *      }
+     *
+     *      protected void onCancelled() {
+     *      }
+     *  };
+     * }
+     * </pre>
+     *
+     * @param <T> the type of {@link View} being validated
+     */
+    public static abstract class FutureCondition<T> extends AsyncCondition<T> {
+
+        /**
+         * Starts the test and returns its pending result.
+         * <p>
+         * This method is called on the main UI thread and must not block.
+         *
+         * @param view the {@link View} being validated
+         * @return a {@link ConditionFuture} that is completed with the result of the test
+         */
+        protected abstract ConditionFuture evaluateFuture(T view);
+
+        /**
+         * Starts the test on the calling thread.
+         * <p>
+         * The {@link Criteria} never calls this method; it calls
+         * {@link #evaluateFuture(Object)} on the main UI thread instead.
+         *
+         * @param view the {@link View} being validated
+         */
+        @Override
+        protected final void evaluate(T view) {
+            evaluateInput(view);
+        }
+
+        @Override
+        final boolean runsOnExecutor() {
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        final void evaluateInput(Object input) {
+            final AsyncCondition<?>.Run run = AsyncCondition.currentRun.get();
+            final ConditionFuture future = evaluateFuture((T) input);
+
+            if (future == null) {
+                throw new IllegalStateException("evaluateFuture() must not return null");
+            }
+
+            if (run == null) {
+                future.addListener(new ConditionFuture.Listener() {
+                    @Override
+                    public void onComplete(boolean result) {
+                        complete(result);
+                    }
+                });
+                return;
+            }
+
+            run.getCancellationToken().addListener(new CancellationToken.Listener() {
+                @Override
+                public void onCancelled() {
+                    future.cancel();
+                }
+            });
+            future.addListener(new ConditionFuture.Listener() {
+                @Override
+                public void onComplete(boolean result) {
+                    complete(run, result);
+                }
+            });
+        }
+    }
+
+    /**
+     * Extracts the input a condition depends on from the view being validated.
+     * <p>
+     * The returned key must implement {@link Object#equals(Object)} and {@link Object#hashCode()}
+     * and must not change after it is returned (ex: a {@link String} rather than an
+     * {@link android.text.Editable}).
+     *
+     * @param <T> the type of {@link View} being validated
+     *
+     * @see AsyncCondition#memoize(KeyExtractor, int, long, TimeUnit)
+     */
+    public interface KeyExtractor<T> {
+
+        /**
+         * Returns the input the condition depends on.
+         *
+         * @param view the {@link View} being validated
+         * @return the key, or null if the result shouldn't be cached
+         */
+        Object extractKey(T view);
+    }
+
+    /**
+     * This interface is supplied to the {@link Criteria#evaluate(EvalCompleteListener)}
+     * method and receives the final validation result after all conditions in a criteria object
+     * have been completed their tests.
+     */
+    public interface EvalCompleteListener {
+
+        /**
+         * This method is called after all conditions of the criteria
+         * have been tested.
+         *
+         * @param validationResult the result after all conditions have been tested
+         */
+        void onComplete(Validator.ValidationResult validationResult);
+    }
+
+    /**
+     * Class constructor specifying the view being validated.
+     *
+     * @param validatedView the {@link View} being validated
+     */
+    public Criteria(T validatedView) {
+        this.validatedView = validatedView != null ? new WeakReference<>(validatedView) : null;
+        this.conditions = new LinkedHashSet<>();
+        this.orderedConditions = new ArrayList<>();
+        this.asyncConditions = new ArrayList<>();
+        this.asyncConditionIndexes = new ArrayList<>();
+        this.offloadedConditions = new ArrayList<>();
+        this.criteria = this;
+        this.bound = false;
+    }
+
+    /**
+     * Class constructor specifying the view being validated and the prototype whose synchronous
+     * conditions are shared.
+     * <p>
+     * The conditions themselves are shared, but each {@link Criteria} gets its own entries from
+     * the array frozen by {@link #freeze()}, so measured durations, the evaluation order and
+     * offloading only depend on the view this instance validates.
+     *
+     * @param validatedView the {@link View} being validated
+     * @param prototype the {@link Criteria} owned by a {@link CriteriaTemplate}
+     *
+     * @see CriteriaTemplate#bind(View)
+     */
+    Criteria(T validatedView, Criteria<T> prototype) {
+        ConditionEntry<T>[] frozenConditions = prototype.freeze();
+
+        this.validatedView = validatedView != null ? new WeakReference<>(validatedView) : null;
+        this.conditions = Collections.unmodifiableSet(prototype.conditions);
+        this.orderedConditions = new ArrayList<>(frozenConditions.length);
+        for (ConditionEntry<T> entry : frozenConditions) {
+            this.orderedConditions.add(new ConditionEntry<>(entry));
+        }
+        this.asyncConditions = new ArrayList<>();
+        this.asyncConditionIndexes = new ArrayList<>();
+        this.offloadedConditions = new ArrayList<>();
+        this.conditionCount = prototype.conditionCount;
+        this.failFast = prototype.failFast;
+        this.executor = prototype.executor;
+        this.offloadBudgetNanos = prototype.offloadBudgetNanos;
+        this.criteria = this;
+        this.bound = true;
+    }
+
+    /**
+     * Copies the synchronous conditions into an array that no longer changes.
+     * <p>
+     * This method is called on the prototype of a {@link CriteriaTemplate} the first time it's
+     * bound. Later calls return the same array.
+     *
+     * @return the synchronous conditions in the order they were added
+     */
+    @SuppressWarnings("unchecked")
+    ConditionEntry<T>[] freeze() {
+        if (this.frozenConditions == null) {
+            this.frozenConditions = this.orderedConditions.toArray(new ConditionEntry[this.orderedConditions.size()]);
+        }
+
+        return this.frozenConditions;
+    }
+
+    /**
+     * Adds an {@link AsyncCondition} to be tested.
+     * <p>
+     * For example, the asynchronous operation could evaluate whether a
+     * username is available.
+     *
+     * @param asyncCondition a condition that performs an asynchronous operation
+     * @return this {@link Criteria} instance
+     *
+     * @see AsyncCondition
+     * @see Condition
+     */
+    public Criteria<T> asyncTest(AsyncCondition<T> asyncCondition) {
+        if (!this.asyncConditions.contains(asyncCondition)) {
+            this.asyncConditions.add(asyncCondition);
+            this.asyncConditionIndexes.add(this.conditionCount++);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a {@link Condition} to be tested.
+     * <p>
+     * For example, the synchronous operation could evaluate whether a username contains valid
+     * characters.
+     *
+     * @param condition a condition that can be tested immediately
+     * @return this {@link Criteria} instance
+     * @throws IllegalStateException if this instance was bound from a {@link CriteriaTemplate}
+     *
+     * @see AsyncCondition
+     * @see Condition
+     */
+    public Criteria<T> test(Condition<? super T> condition) {
+        return test(condition, ConditionEntry.UNDECLARED_COST);
+    }
+
+    /**
+     * Adds a {@link Condition} to be tested along with its relative cost.
+     * <p>
+     * Conditions are tested from the lowest to the highest cost. Conditions added without a cost
+     * via {@link #test(Condition)} are tested after all conditions with a declared cost, ordered
+     * by how long they took to evaluate previously. The order matters most when
+     * {@link #failFast(boolean)} is enabled since the first failing condition stops the rest
+     * from being tested.
+     *
+     * @param condition a condition that can be tested immediately
+     * @param cost the relative cost of testing the condition, lower values are tested first
+     * @return this {@link Criteria} instance
+     * @throws IllegalStateException if this instance was bound from a {@link CriteriaTemplate}
+     *
+     * @see #failFast(boolean)
+     */
+    public Criteria<T> test(Condition<? super T> condition, int cost) {
+        if (this.bound) {
+            throw new IllegalStateException("Conditions can't be added to a Criteria bound from a CriteriaTemplate");
+        }
+
+        if (this.conditions.add(condition)) {
+            this.orderedConditions.add(new ConditionEntry<>(condition, cost, this.conditionCount++));
+        }
+        return this;
+    }
+
+    /**
+     * Enables or disables fail-fast evaluation.
+     * <p>
+     * When enabled, synchronous {@link Condition} objects are tested first in cost order (see
+     * {@link #test(Condition, int)}) and the first failure stops the remaining conditions from
+     * being tested. {@link AsyncCondition} objects are only started once every synchronous
+     * condition has passed, and the first asynchronous failure cancels the rest.
+     * <p>
+     * For example, a username containing invalid characters never reaches a web service that
+     * checks whether the username is available.
+     *
+     * @param failFast true to stop at the first failing condition
+     * @return this {@link Criteria} instance
+     */
+    public Criteria<T> failFast(boolean failFast) {
+        this.failFast = failFast;
+        return this;
+    }
+
+    /**
+     * Declares other views that the conditions read besides the view being validated.
+     * <p>
+     * For example, a "confirm password" {@link Criteria} depends on the password view. A
+     * {@link ValidationGraph} re-evaluates this instance whenever one of the views changes, and
+     * the default fingerprint used by an incremental {@link ValidatorSet} includes them.
+     *
+     * @param views one or more views read by the conditions
+     * @return this {@link Criteria} instance
+     *
+     * @see ValidationGraph#viewChanged(View)
+     */
+    public Criteria<T> dependsOn(View... views) {
+        for (View view : views) {
+            if (view == null) {
+                throw new IllegalArgumentException("views must not be null");
+            }
+
+            if (view != getValidatedView() && !getDependencies().contains(view)) {
+                this.dependencies.add(new WeakReference<>(view));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns the views supplied to {@link #dependsOn(View...)}.
+     * <p>
+     * The views are held weakly, so views that have been garbage collected are left out.
+     *
+     * @return the views read by the conditions besides the view being validated
+     */
+    List<View> getDependencies() {
+        List<View> dependencies = new ArrayList<>(this.dependencies.size());
+
+        for (int i = 0; i < this.dependencies.size(); i++) {
+            View view = this.dependencies.get(i).get();
+            if (view != null) {
+                dependencies.add(view);
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Moves synchronous conditions that are too slow for the main UI thread to a worker thread.
+     * <p>
+     * The time taken by each {@link Condition} is measured. Once the moving average of a
+     * condition exceeds the budget, it is no longer tested on the thread that requested the
+     * validation. From the next evaluation on it runs on the {@link AsyncConditionExecutor} and
+     * its result is combined with those of the {@link AsyncCondition} objects, so the
+     * {@link EvalCompleteListener} may be invoked later instead of immediately. With
+     * {@link #failFast(boolean)} enabled, an offloaded condition is started along with the
+     * asynchronous conditions once the remaining synchronous conditions pass.
+     * <p>
+     * Views must only be read on the main UI thread, so only the text conditions created by
+     * {@link Conditions} are offloaded: the text is copied on the main UI thread and the copy is
+     * tested on the worker thread. Other conditions, including {@link IncrementalCondition}
+     * objects, always run on the thread that requested the validation; use an
+     * {@link SnapshotAsyncCondition} for those that are too slow. A condition stays offloaded for
+     * the lifetime of this instance; see {@link #getOffloadedConditions()} and
+     * {@link ValidationMetrics#onConditionOffloaded(Criteria, Condition, long)}.
+     *
+     * @param budget the longest time a condition may take on the main UI thread, or 0 to disable
+     *               offloading
+     * @param unit the {@link TimeUnit} of the budget
+     * @return this {@link Criteria} instance
+     * @throws IllegalStateException if this instance was bound from a {@link CriteriaTemplate}
+     */
+    public Criteria<T> offloadSlowConditions(long budget, TimeUnit unit) {
+        if (this.bound) {
+            throw new IllegalStateException("Offloading can't be changed on a Criteria bound from a CriteriaTemplate");
+        }
+
+        if (budget < 0) {
+            throw new IllegalArgumentException("budget must not be negative");
+        }
+
+        this.offloadBudgetNanos = unit.toNanos(budget);
+        return this;
+    }
+
+    /**
+     * Returns the synchronous conditions that were moved to a worker thread because they
+     * exceeded the budget supplied to {@link #offloadSlowConditions(long, TimeUnit)}.
+     *
+     * @return the offloaded {@link Condition} objects in the order they were offloaded
+     */
+    public List<Condition<? super T>> getOffloadedConditions() {
+        List<Condition<? super T>> conditions = new ArrayList<>();
+        for (int i = 0; i < this.offloadedConditions.size(); i++) {
+            conditions.add(this.offloadedConditions.get(i).entry.condition);
+        }
+
+        return conditions;
+    }
+
+    /**
+     * Sets the {@link AsyncConditionExecutor} used to evaluate the {@link AsyncCondition} objects
+     * associated with this instance.
+     * <p>
+     * If an executor isn't supplied, {@link AsyncConditionExecutor#getDefault()} is used.
+     *
+     * @param executor an {@link AsyncConditionExecutor}
+     * @return this {@link Criteria} instance
+     */
+    public Criteria<T> executeOn(AsyncConditionExecutor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Returns the {@link AsyncConditionExecutor} used to evaluate {@link AsyncCondition} objects.
+     *
+     * @return the executor supplied to {@link #executeOn(AsyncConditionExecutor)} or the
+     * library-wide default executor
+     */
+    AsyncConditionExecutor getExecutor() {
+        return this.executor != null ? this.executor : AsyncConditionExecutor.getDefault();
+    }
+
+    /**
+     * Completes the evaluation with a fixed outcome if its {@link AsyncCondition} objects haven't
+     * completed in time.
+     * <p>
+     * When the timeout elapses the asynchronous conditions that are still running are cancelled
+     * and the {@link Validator} receives the supplied outcome, unless a condition has already
+     * failed. {@link Validator.ValidationResult#Unknown} lets observers distinguish
+     * <i>couldn't check</i> from <i>invalid</i>.
+     * <p>
+     * The remaining time is also the upper bound of
+     * {@link AsyncCondition#getRemainingTime(TimeUnit)}.
+     *
+     * @param timeout the maximum time to wait for the asynchronous conditions
+     * @param unit the {@link TimeUnit} of the timeout
+     * @param outcome the result of the pending conditions if the timeout elapses
+     * @return this {@link Criteria} instance
+     *
+     * @see AsyncCondition#timeout(long, TimeUnit, Validator.ValidationResult)
+     */
+    public Criteria<T> timeout(long timeout, TimeUnit unit, Validator.ValidationResult outcome) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+
+        if (outcome == null) {
+            throw new IllegalArgumentException("outcome must not be null");
+        }
+
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.timeoutOutcome = outcome;
+        return this;
+    }
+
+    /**
+     * Returns the number of evaluations that timed out, either because of the timeout of this
+     * instance or the timeout of one of its {@link AsyncCondition} objects.
+     *
+     * @return the number of timeouts
+     */
+    public long getTimeoutCount() {
+        return this.timeoutCount;
+    }
+
+    /**
+     * Returns how much of the timeout of the current evaluation is left.
+     *
+     * @return the remaining time in nanoseconds, or {@link Long#MAX_VALUE} if there is no timeout
+     */
+    long getRemainingTimeoutNanos() {
+        if (this.timeoutNanos == 0) {
+            return Long.MAX_VALUE;
+        }
+
+        return Math.max(0, this.timeoutNanos - (System.nanoTime() - this.evaluationStartNanos));
+    }
+
+    /**
+     * Returns the {@link ValidationMetrics} of the current evaluation.
+     *
+     * @return the {@link ValidationMetrics} that was the default when the evaluation started
+     */
+    ValidationMetrics getMetrics() {
+        return this.metrics != null ? this.metrics : ValidationMetrics.getDefault();
+    }
+
+    /**
+     * Sets the {@link Scheduler} used to time out evaluations.
+     * <p>
+     * For testing.
+     *
+     * @param scheduler a {@link Scheduler}
+     */
+    void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the {@link Scheduler} used to time out evaluations.
+     *
+     * @return the {@link Scheduler} supplied to {@link #setScheduler(Scheduler)} or the
+     * {@link MainThreadScheduler}
+     */
+    Scheduler getScheduler() {
+        return this.scheduler != null ? this.scheduler : MainThreadScheduler.getInstance();
+    }
+
+
+    /**
+     * Evaluates all {@link Condition} and {@link AsyncCondition} objects associated with
+     * this instance.
+     * <p>
+     * Each call starts a new generation. Results of {@link AsyncCondition} objects started by an
+     * earlier generation are dropped, so the {@link EvalCompleteListener} only ever receives a
+     * result computed from a single evaluation.
+     * <p>
+     * The view is held weakly so that a {@link Criteria} kept past the screen that owns it
+     * doesn't retain the screen. Once the view has been garbage collected nothing is evaluated
+     * and the {@link EvalCompleteListener} isn't called.
+     *
+     * @param evalCompleteListener an {@link EvalCompleteListener} that will handle the final result
+     */
+    void evaluate(EvalCompleteListener evalCompleteListener) {
+        if (this.validatedView != null && this.validatedView.get() == null) {
+            supersede();
+            return;
+        }
+
+        // Cancel the conditions still running for the previous evaluation and disarm their
+        // timeouts, since this evaluation may not start them again.
+        supersede();
+
+        this.generation++;
+        reset();
+        this.evalCompleteListener = evalCompleteListener;
+        this.evaluating = true;
+        this.evaluationStartNanos = System.nanoTime();
+        this.metrics = ValidationMetrics.getDefault();
+        updateOffloadedConditions();
+
+        ValidationTracer tracer = ValidationTracer.getDefault();
+        tracer.beginSection(ValidationTracer.EVALUATE_SECTION);
+        try {
+            if (this.failFast) {
+                // Perform the synchronous evaluations first and only go asynchronous if they all pass.
+                evaluateConditions();
+
+                if (this.validationResult == Validator.ValidationResult.Valid) {
+                    this.asyncConditionsStarted = this.asyncConditions.size() + this.offloadedConditions.size();
+                    evaluateAsyncConditions();
+                }
+            } else {
+                // Initiate all asynchronous evaluations.
+                this.asyncConditionsStarted = this.asyncConditions.size() + this.offloadedConditions.size();
+                evaluateAsyncConditions();
+
+                // Perform all synchronous evaluations.
+                evaluateConditions();
+            }
+
+            // Only completes if there aren't any AsyncCondition objects still running.
+            complete();
+        } finally {
+            tracer.endSection();
+        }
+
+        if (this.evaluating && this.timeoutNanos > 0) {
+            getScheduler().postDelayed(this.evaluationTimeout, TimeUnit.NANOSECONDS.toMillis(this.timeoutNanos));
+            this.timeoutScheduled = true;
+        }
+    }
+
+    /**
+     * Evaluate all synchronous conditions in cost order.
+     * <p>
+     * Offloaded conditions are skipped since they are started by
+     * {@link #evaluateAsyncConditions()}. If fail-fast evaluation is enabled, the remaining
+     * conditions are skipped after the first failure.
+     */
+    void evaluateConditions() {
+        ValidationMetrics metrics = getMetrics();
+        ValidationTracer tracer = ValidationTracer.getDefault();
+        boolean measure = this.failFast || this.offloadBudgetNanos > 0 || metrics.isEnabled();
+        T view = getValidatedView();
+        sortConditions();
+
+        for (int i = 0; i < this.orderedConditions.size(); i++) {
+            ConditionEntry<T> entry = this.orderedConditions.get(i);
+            boolean result;
+
+            if (isOffloaded(entry)) {
+                continue;
+            }
+
+            tracer.beginSection(entry.sectionName);
+            try {
+                if (measure) {
+                    long start = System.nanoTime();
+                    result = entry.condition.evaluate(view);
+                    long durationNanos = System.nanoTime() - start;
+                    entry.recordDuration(durationNanos);
+                    metrics.onConditionEvaluated(entry.condition, result, durationNanos);
+                } else {
+                    result = entry.condition.evaluate(view);
+                }
+            } finally {
+                tracer.endSection();
+            }
+
+            setValidationResult(result, entry.index);
+
+            if (!result && this.failFast) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Offloads the synchronous conditions whose measured duration exceeds the budget supplied
+     * to {@link #offloadSlowConditions(long, TimeUnit)}.
+     * <p>
+     * This method is called before an evaluation starts, so a condition that becomes too slow
+     * during an evaluation is only offloaded from the next one.
+     */
+    private void updateOffloadedConditions() {
+        if (this.offloadBudgetNanos <= 0) {
+            return;
+        }
+
+        for (int i = 0; i < this.orderedConditions.size(); i++) {
+            ConditionEntry<T> entry = this.orderedConditions.get(i);
+
+            if (entry.exceeds(this.offloadBudgetNanos) && !isOffloaded(entry)) {
+                this.offloadedConditions.add(new OffloadedCondition<>(entry));
+                getMetrics().onConditionOffloaded(this, entry.condition, entry.averageNanos);
+            }
+        }
+    }
+
+    /**
+     * Returns whether a synchronous condition has been offloaded to a worker thread.
+     *
+     * @param entry a synchronous condition
+     * @return true if the condition is offloaded, otherwise false
+     */
+    private boolean isOffloaded(ConditionEntry<T> entry) {
+        for (int i = 0; i < this.offloadedConditions.size(); i++) {
+            if (this.offloadedConditions.get(i).entry == entry) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Sorts the synchronous conditions by declared cost and then by measured duration.
+     * <p>
+     * An insertion sort is used since the list is short, usually already sorted and is sorted
+     * in place.
+     */
+    private void sortConditions() {
+        for (int i = 1; i < this.orderedConditions.size(); i++) {
+            ConditionEntry<T> entry = this.orderedConditions.get(i);
+            int j = i - 1;
+
+            while (j >= 0 && this.orderedConditions.get(j).compareTo(entry) > 0) {
+                this.orderedConditions.set(j + 1, this.orderedConditions.get(j));
+                j--;
+            }
+            this.orderedConditions.set(j + 1, entry);
+        }
+    }
+
+    /**
+     * Initiate all asynchronous conditions, followed by the offloaded synchronous conditions.
+     * <p>
+     * Conditions with a cached result complete immediately without being started. If fail-fast
+     * evaluation is enabled, a cached failure stops the remaining conditions.
+     */
+    void evaluateAsyncConditions() {
+        T view = getValidatedView();
+
+        for (int i = 0; i < this.asyncConditions.size(); i++) {
+            AsyncCondition<T> asyncCondition = this.asyncConditions.get(i);
+            Boolean cachedResult = asyncCondition.getCachedResult(view);
+
+            if (cachedResult == null) {
+                asyncCondition.initEvaluate(this, view, this.generation);
+                continue;
+            }
+
+            this.asyncConditionsComplete++;
+            setValidationResult(cachedResult, this.asyncConditionIndexes.get(i));
+
+            if (!cachedResult && this.failFast) {
+                supersedeAsyncConditions();
+                return;
+            }
+        }
+
+        for (int i = 0; i < this.offloadedConditions.size(); i++) {
+            this.offloadedConditions.get(i).initEvaluate(this, view, this.generation);
+        }
+    }
+
+    void cancelValidation() {
+        if (this.evaluating) {
+            getMetrics().onEvaluationCancelled(this, false);
+        }
+
+        this.generation++;
+        this.evaluating = false;
+        reset();
+
+        for (int i = 0; i < this.asyncConditions.size(); i++) {
+            this.asyncConditions.get(i).cancel();
+        }
+
+        for (int i = 0; i < this.offloadedConditions.size(); i++) {
+            this.offloadedConditions.get(i).cancel();
+        }
+    }
+
+    /**
+     * Drops the evaluation in progress, if any, because a newer evaluation will replace it.
+     * <p>
+     * The {@link EvalCompleteListener} of the dropped evaluation is never invoked.
+     *
+     * @return true if an evaluation was in progress, otherwise false
+     */
+    boolean supersede() {
+        if (!this.evaluating) {
+            return false;
+        }
+
+        getMetrics().onEvaluationCancelled(this, true);
+
+        this.generation++;
+        this.evaluating = false;
+        reset();
+
+        for (int i = 0; i < this.asyncConditions.size(); i++) {
+            this.asyncConditions.get(i).supersede();
+        }
+
+        for (int i = 0; i < this.offloadedConditions.size(); i++) {
+            this.offloadedConditions.get(i).supersede();
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the view being validated.
+     *
+     * @return the {@link View} supplied to the constructor, or null if it has been garbage
+     * collected
+     */
+    T getValidatedView() {
+        return this.validatedView != null ? this.validatedView.get() : null;
+    }
+
+    /**
+     * Returns all {@link Condition} objects added to this instance.
+     * <p>
+     * For testing.
+     * @return all {@link Condition} objects added to this instance
+     */
+    Set<Condition<? super T>> getConditions() {
+        return Collections.unmodifiableSet(this.conditions);
+    }
+
+    /**
+     * Returns all {@link Condition} objects in the order they were last tested.
+     * <p>
+     * For testing.
+     * @return all {@link Condition} objects in the order they were last tested
+     */
+    List<Condition<? super T>> getOrderedConditions() {
+        List<Condition<? super T>> conditions = new ArrayList<>();
+        for (ConditionEntry<T> entry : this.orderedConditions) {
+            conditions.add(entry.condition);
+        }
+
+        return conditions;
+    }
+
+    /**
+     * Returns all {@link AsyncCondition} objects added to this instance.
+     * <p>
+     * For testing.
+     * @return all {@link AsyncCondition} objects added to this instance
+     */
+    List<AsyncCondition<T>> getAsyncConditions() {
+        return Collections.unmodifiableList(this.asyncConditions);
+    }
+
+    /**
+     * Returns the generation of the most recent evaluation.
+     * <p>
+     * For testing.
+     *
+     * @return the generation of the most recent evaluation
+     */
+    int getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Returns the number of {@link AsyncCondition} results that were dropped because they
+     * belonged to an evaluation that had been superseded or cancelled.
+     *
+     * @return the number of dropped results
+     */
+    long getStaleCompletionCount() {
+        return this.staleCompletionCount;
+    }
+
+    /**
+     * Returns whether an evaluation is waiting on {@link AsyncCondition} objects.
+     *
+     * @return true if an evaluation is in progress, otherwise false
+     */
+    boolean isEvaluating() {
+        return this.evaluating;
+    }
+
+    /**
+     * Returns a bitmask of the conditions that failed in the evaluation being completed.
+     * <p>
+     * Bit <i>n</i> is set if the <i>n</i>th condition added via {@link #test(Condition)} or
+     * {@link #asyncTest(AsyncCondition)} failed. Only the first 64 conditions are represented,
+     * and a timeout of the whole {@link Criteria} isn't attributed to a condition. This value is
+     * only meaningful while the {@link EvalCompleteListener} is being invoked.
+     *
+     * @return the bitmask of failed conditions
+     */
+    long getFailedConditions() {
+        return this.failedConditions;
+    }
+
+    /**
+     * This method is called when {@link AsyncCondition#complete(boolean)} is invoked for the
+     * current evaluation.
+     *
+     * @param result the result of testing the condition
+     *
+     * @see AsyncCondition
+     */
+    void asyncConditionComplete(boolean result) {
+        asyncConditionComplete(this.generation, result);
+    }
+
+    /**
+     * This method is called on the main UI thread when {@link AsyncCondition#complete(boolean)}
+     * is invoked.
+     * <p>
+     * Results that belong to an earlier generation are dropped.
+     *
+     * @param generation the generation of the evaluation that produced the result
+     * @param result the result of testing the condition
+     *
+     * @see AsyncCondition
+     */
+    void asyncConditionComplete(int generation, boolean result) {
+        asyncConditionComplete(null, generation, result);
+    }
+
+    /**
+     * This method is called on the main UI thread when {@link AsyncCondition#complete(boolean)}
+     * is invoked.
+     * <p>
+     * Results that belong to an earlier generation are dropped.
+     *
+     * @param asyncCondition the {@link AsyncCondition} that produced the result, or null if unknown
+     * @param generation the generation of the evaluation that produced the result
+     * @param result the result of testing the condition
+     */
+    void asyncConditionComplete(AsyncCondition<?> asyncCondition, int generation, boolean result) {
+        if (generation != this.generation || !this.evaluating) {
+            this.staleCompletionCount++;
+            return;
+        }
+
+        this.asyncConditionsComplete++;
+        setValidationResult(result, indexOf(asyncCondition));
+
+        if (!result && this.failFast && this.asyncConditionsComplete < this.asyncConditionsStarted) {
+            supersedeAsyncConditions();
+        }
+
+        complete();
+    }
+
+    /**
+     * This method is called on the main UI thread when the timeout of an {@link AsyncCondition}
+     * elapses before it completes.
+     *
+     * @param asyncCondition the {@link AsyncCondition} that timed out
+     * @param generation the generation of the evaluation that timed out
+     * @param outcome the result the condition completes with
+     *
+     * @see AsyncCondition#timeout(long, TimeUnit, Validator.ValidationResult)
+     */
+    void asyncConditionTimedOut(AsyncCondition<?> asyncCondition, int generation, Validator.ValidationResult outcome) {
+        if (generation != this.generation || !this.evaluating) {
+            this.staleCompletionCount++;
+            return;
+        }
+
+        this.timeoutCount++;
+        getMetrics().onTimeout(this, asyncCondition);
+        this.asyncConditionsComplete++;
+        setValidationResult(outcome);
+        if (outcome == Validator.ValidationResult.Invalid) {
+            this.failedConditions |= bit(indexOf(asyncCondition));
+        }
+
+        if (outcome == Validator.ValidationResult.Invalid && this.failFast
+                && this.asyncConditionsComplete < this.asyncConditionsStarted) {
+            supersedeAsyncConditions();
+        }
+
+        complete();
+    }
+
+    /**
+     * This method is called on the main UI thread when the {@link AsyncConditionExecutor}
+     * rejects the evaluation of an {@link AsyncCondition}.
+     * <p>
+     * The condition wasn't checked, so it completes as {@link Validator.ValidationResult#Unknown}.
+     *
+     * @param asyncCondition the {@link AsyncCondition} whose evaluation was rejected
+     * @param generation the generation of the evaluation that was rejected
+     *
+     * @see AsyncConditionExecutor.RejectionPolicy
+     */
+    void asyncConditionRejected(AsyncCondition<?> asyncCondition, int generation) {
+        if (generation != this.generation || !this.evaluating) {
+            this.staleCompletionCount++;
+            return;
+        }
+
+        this.asyncConditionsComplete++;
+        setValidationResult(Validator.ValidationResult.Unknown);
+        complete();
+    }
+
+    /**
+     * This method is called on the main UI thread when the timeout supplied to
+     * {@link #timeout(long, TimeUnit, Validator.ValidationResult)} elapses.
+     */
+    private void onEvaluationTimeout() {
+        if (!this.evaluating) {
+            return;
+        }
+
+        this.timeoutCount++;
+        getMetrics().onTimeout(this, null);
+        setValidationResult(this.timeoutOutcome);
+        supersedeAsyncConditions();
+        complete();
+    }
+
+    /**
+     * Stops waiting on the asynchronous conditions that are still running because the result
+     * can no longer change.
+     */
+    private void supersedeAsyncConditions() {
+        for (int i = 0; i < this.asyncConditions.size(); i++) {
+            this.asyncConditions.get(i).supersede();
+        }
+
+        for (int i = 0; i < this.offloadedConditions.size(); i++) {
+            this.offloadedConditions.get(i).supersede();
+        }
+        this.asyncConditionsComplete = this.asyncConditionsStarted;
+    }
+
+    /**
+     * This method is called by {@link #evaluate(EvalCompleteListener)} and/or
+     * {@link #asyncConditionComplete(boolean)} after all synchronous and/or asynchronous conditions
+     * have completed their tests.
+     */
+    private void complete() {
+        if (this.evaluating && this.asyncConditionsStarted == asyncConditionsComplete) {
+            this.evaluating = false;
+
+            ValidationMetrics metrics = getMetrics();
+            if (metrics.isEnabled()) {
+                metrics.onEvaluationComplete(this, this.validationResult, System.nanoTime() - this.evaluationStartNanos);
+            }
+
+            this.evalCompleteListener.onComplete(this.validationResult);
+            reset();
+        }
+    }
 
     /**
      * This method is called by {@link #evaluate(EvalCompleteListener)} or
@@ -372,11 +1979,56 @@ public class Criteria<T extends View> {
      *
      * @param result the result of testing the condition
      */
-    private void setValidationResult(boolean result) {
+    private void setValidationResult(boolean result, int index) {
 
         // Only set to Invalid if the test didn't pass since the default value is Valid.
         if (!result) {
             this.validationResult = Validator.ValidationResult.Invalid;
+            this.failedConditions |= bit(index);
+        }
+    }
+
+    /**
+     * Returns the index of an {@link AsyncCondition} in the order conditions were added.
+     *
+     * @param asyncCondition an {@link AsyncCondition} added via {@link #asyncTest(AsyncCondition)}
+     *                       or an offloaded synchronous condition
+     * @return the index of the condition, or -1 if it isn't known
+     */
+    private int indexOf(AsyncCondition<?> asyncCondition) {
+        if (asyncCondition instanceof OffloadedCondition) {
+            return ((OffloadedCondition<?>) asyncCondition).entry.index;
+        }
+
+        int i = asyncCondition != null ? this.asyncConditions.indexOf(asyncCondition) : -1;
+
+        return i < 0 ? -1 : this.asyncConditionIndexes.get(i);
+    }
+
+    /**
+     * Returns the bit of {@link #getFailedConditions()} that represents a condition.
+     *
+     * @param index the index of the condition in the order conditions were added
+     * @return the bit of the condition, or 0 if the index can't be represented
+     */
+    private static long bit(int index) {
+        return index >= 0 && index < Long.SIZE ? 1L << index : 0;
+    }
+
+    /**
+     * Merges the outcome of a timed out condition into the
+     * {@link io.launchowl.viewvalidationlibrary.Validator.ValidationResult} value supplied to
+     * the {@link EvalCompleteListener}.
+     * <p>
+     * Invalid takes precedence over Unknown, which takes precedence over Valid.
+     *
+     * @param result the outcome of the timed out condition
+     */
+    private void setValidationResult(Validator.ValidationResult result) {
+        if (result == Validator.ValidationResult.Invalid
+                || (result == Validator.ValidationResult.Unknown
+                        && this.validationResult == Validator.ValidationResult.Valid)) {
+            this.validationResult = result;
         }
     }
 
@@ -384,7 +2036,145 @@ public class Criteria<T extends View> {
      * Resets default values.
      */
     private void reset() {
+        if (this.timeoutScheduled) {
+            this.timeoutScheduled = false;
+            getScheduler().cancel(this.evaluationTimeout);
+        }
+
         this.asyncConditionsComplete = 0;
+        this.asyncConditionsStarted = 0;
         this.validationResult = Validator.ValidationResult.Valid;
+        this.failedConditions = 0;
+    }
+
+    /**
+     * A synchronous {@link Condition} along with its declared cost and measured duration.
+     *
+     * @param <T> the type of {@link View} being validated
+     */
+    private static class ConditionEntry<T> implements Comparable<ConditionEntry<T>> {
+        static final int UNDECLARED_COST = Integer.MAX_VALUE;
+
+        // The first evaluations include class loading, so they aren't enough to offload a condition.
+        static final int MIN_SAMPLES_TO_OFFLOAD = 3;
+
+        final Condition<? super T> condition;
+        final int cost;
+        final int index;
+        final String sectionName;
+        long averageNanos = 0;
+        int sampleCount = 0;
+
+        ConditionEntry(Condition<? super T> condition, int cost, int index) {
+            this.condition = condition;
+            this.cost = cost;
+            this.index = index;
+            this.sectionName = ValidationTracer.sectionName(condition);
+        }
+
+        /**
+         * Class constructor copying the condition, cost and index of a frozen entry. The
+         * measured durations start over.
+         *
+         * @param entry an entry frozen by {@link Criteria#freeze()}
+         */
+        ConditionEntry(ConditionEntry<T> entry) {
+            this.condition = entry.condition;
+            this.cost = entry.cost;
+            this.index = entry.index;
+            this.sectionName = entry.sectionName;
+        }
+
+        /**
+         * Updates the moving average of the time taken to evaluate the condition.
+         *
+         * @param nanos the time taken by the latest evaluation
+         */
+        void recordDuration(long nanos) {
+            this.averageNanos = this.averageNanos == 0 ? nanos : (this.averageNanos * 3 + nanos) / 4;
+            this.sampleCount++;
+        }
+
+        /**
+         * Returns whether the condition is too slow for the main UI thread and may be offloaded.
+         * <p>
+         * Only the text conditions of {@link Conditions} can test a snapshot of the view, so no
+         * other condition is offloaded.
+         *
+         * @param budgetNanos the budget supplied to
+         *                    {@link Criteria#offloadSlowConditions(long, TimeUnit)}
+         * @return true if the moving average exceeds the budget, otherwise false
+         */
+        boolean exceeds(long budgetNanos) {
+            return this.sampleCount >= MIN_SAMPLES_TO_OFFLOAD
+                    && this.averageNanos > budgetNanos
+                    && this.condition instanceof Conditions.TextCondition;
+        }
+
+        @Override
+        public int compareTo(ConditionEntry<T> other) {
+            if (this.cost != other.cost) {
+                return this.cost < other.cost ? -1 : 1;
+            }
+
+            if (this.cost != UNDECLARED_COST || this.averageNanos == other.averageNanos) {
+                return 0;
+            }
+
+            return this.averageNanos < other.averageNanos ? -1 : 1;
+        }
+    }
+
+    /**
+     * Runs a synchronous {@link Condition} that exceeded the budget supplied to
+     * {@link #offloadSlowConditions(long, TimeUnit)} on a worker thread.
+     * <p>
+     * Only {@link Conditions.TextCondition} objects are offloaded. The text of the view is copied
+     * on the main UI thread and the worker thread only sees the copy.
+     *
+     * @param <T> the type of {@link View} being validated
+     */
+    private static final class OffloadedCondition<T> extends AsyncCondition<T> {
+        final ConditionEntry<T> entry;
+
+        OffloadedCondition(ConditionEntry<T> entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        protected void evaluate(T view) {
+            evaluateInput(extractInput(view));
+        }
+
+        @Override
+        Object extractInput(T view) {
+            CharSequence text = ((TextView) view).getText();
+
+            return text != null ? text.toString() : "";
+        }
+
+        @Override
+        void evaluateInput(Object input) {
+            ValidationTracer tracer = ValidationTracer.getDefault();
+            boolean result;
+
+            tracer.beginSection(this.entry.sectionName);
+            try {
+                result = ((Conditions.TextCondition) this.entry.condition).testSnapshot((String) input);
+            } finally {
+                tracer.endSection();
+            }
+
+            complete(result);
+        }
+
+        @Override
+        protected void onCancelled() {
+        }
+
+        @Override
+        public String toString() {
+            return this.entry.condition.toString();
+        }
     }
 }
@@ -0,0 +1,143 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.view.View;
+
+/**
+ * A set of synchronous {@link Criteria.Condition} objects that is built once and bound to any
+ * number of views.
+ * <p>
+ * A {@link Criteria} is tied to the view supplied to its constructor, so a screen with many
+ * views sharing the same rules (ex: the rows of a list) would otherwise build an identical
+ * collection of conditions for every view. A template is built once and each call to
+ * {@link #bind(View)} returns a {@link Criteria} that shares the template's conditions instead
+ * of copying them.
+ * <p>
+ * The template is frozen the first time it's bound and can't be changed afterwards. Each bound
+ * {@link Criteria} measures and orders the shared conditions on its own, so a slow view
+ * doesn't reorder or offload the conditions of the others.
+ * {@link Criteria.AsyncCondition} objects hold the state of a single evaluation, so they're
+ * added to each bound {@link Criteria} via {@link Criteria#asyncTest(Criteria.AsyncCondition)}.
+ * <pre>
+ * {@code
+ *  // Build once, for example in the adapter's constructor
+ *  CriteriaTemplate<EditText> quantityTemplate = new CriteriaTemplate<EditText>()
+ *          .test(isNumeric, 1)
+ *          .test(isInStock, 2)
+ *          .failFast(true);
+ *
+ *  // Bind for each row
+ *  Validator<EditText> validator = new Validator<>(quantityTemplate.bind(holder.quantityEditText));
+ * }
+ * </pre>
+ *
+ * @param <T> the type of {@link View} being validated
+ */
+public final class CriteriaTemplate<T extends View> {
+    private final Criteria<T> prototype = new Criteria<>(null);
+    private boolean frozen = false;
+    private long boundCount = 0;
+
+    /**
+     * Adds a {@link Criteria.Condition} to be tested.
+     *
+     * @param condition a condition that can be tested immediately
+     * @return this {@link CriteriaTemplate} instance
+     * @throws IllegalStateException if the template has already been bound
+     *
+     * @see Criteria#test(Criteria.Condition)
+     */
+    public CriteriaTemplate<T> test(Criteria.Condition<? super T> condition) {
+        checkNotFrozen();
+        this.prototype.test(condition);
+        return this;
+    }
+
+    /**
+     * Adds a {@link Criteria.Condition} to be tested along with its relative cost.
+     *
+     * @param condition a condition that can be tested immediately
+     * @param cost the relative cost of testing the condition, lower values are tested first
+     * @return this {@link CriteriaTemplate} instance
+     * @throws IllegalStateException if the template has already been bound
+     *
+     * @see Criteria#test(Criteria.Condition, int)
+     */
+    public CriteriaTemplate<T> test(Criteria.Condition<? super T> condition, int cost) {
+        checkNotFrozen();
+        this.prototype.test(condition, cost);
+        return this;
+    }
+
+    /**
+     * Enables or disables fail-fast evaluation for every {@link Criteria} bound from this
+     * template.
+     *
+     * @param failFast true to stop at the first failing condition
+     * @return this {@link CriteriaTemplate} instance
+     * @throws IllegalStateException if the template has already been bound
+     *
+     * @see Criteria#failFast(boolean)
+     */
+    public CriteriaTemplate<T> failFast(boolean failFast) {
+        checkNotFrozen();
+        this.prototype.failFast(failFast);
+        return this;
+    }
+
+    /**
+     * Sets the {@link AsyncConditionExecutor} used by every {@link Criteria} bound from this
+     * template.
+     *
+     * @param executor an {@link AsyncConditionExecutor}
+     * @return this {@link CriteriaTemplate} instance
+     * @throws IllegalStateException if the template has already been bound
+     *
+     * @see Criteria#executeOn(AsyncConditionExecutor)
+     */
+    public CriteriaTemplate<T> executeOn(AsyncConditionExecutor executor) {
+        checkNotFrozen();
+        this.prototype.executeOn(executor);
+        return this;
+    }
+
+    /**
+     * Returns a {@link Criteria} that tests the conditions of this template against a view.
+     * <p>
+     * The first call freezes the template. Conditions can't be added to the returned
+     * {@link Criteria} via {@link Criteria#test(Criteria.Condition)}, but
+     * {@link Criteria.AsyncCondition} objects can be added via
+     * {@link Criteria#asyncTest(Criteria.AsyncCondition)}.
+     *
+     * @param view the {@link View} being validated
+     * @return a new {@link Criteria} sharing the conditions of this template
+     */
+    public Criteria<T> bind(T view) {
+        this.frozen = true;
+        this.boundCount++;
+        return new Criteria<>(view, this.prototype);
+    }
+
+    /**
+     * Returns whether the template has been bound and can no longer be changed.
+     *
+     * @return true if {@link #bind(View)} has been called, otherwise false
+     */
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Returns the number of {@link Criteria} objects bound from this template.
+     *
+     * @return the number of calls to {@link #bind(View)}
+     */
+    public long getBoundCount() {
+        return this.boundCount;
+    }
+
+    private void checkNotFrozen() {
+        if (this.frozen) {
+            throw new IllegalStateException("A CriteriaTemplate can't be changed after it has been bound");
+        }
+    }
+}
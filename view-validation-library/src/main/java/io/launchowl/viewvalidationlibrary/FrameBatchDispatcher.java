@@ -0,0 +1,149 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects {@link Observer} updates and delivers them together at the start of the next frame.
+ * <p>
+ * Without a dispatcher each {@link Validator} notifies its observers as soon as its
+ * {@link Criteria} completes, so the validators of a {@link ValidatorSet} that complete at
+ * slightly different times update the UI in different frames. Validators that share a
+ * dispatcher instead hand their results to it, and every result received before the next vsync
+ * is delivered in a single batch, causing a single layout pass.
+ * <p>
+ * If the same validator completes more than once within a frame only its latest result is
+ * delivered.
+ * <pre>
+ * {@code
+ *  FrameBatchDispatcher dispatcher = new FrameBatchDispatcher();
+ *  userNameValidator.dispatchOnFrame(dispatcher);
+ *  passwordValidator.dispatchOnFrame(dispatcher);
+ * }
+ * </pre>
+ * All methods must be called on the main UI thread.
+ *
+ * @see Validator#dispatchOnFrame(FrameBatchDispatcher)
+ * @see ValidatorSet#dispatchOnFrame(FrameBatchDispatcher)
+ */
+public final class FrameBatchDispatcher {
+    private final FrameSource frameSource;
+    private Map<Target, Validator.ValidationResult> pending = new LinkedHashMap<>();
+    private boolean frameScheduled = false;
+    private long frameCount = 0;
+    private long deliveredCount = 0;
+    private long coalescedCount = 0;
+    private final Runnable frameCallback = new Runnable() {
+        @Override
+        public void run() {
+            doFrame();
+        }
+    };
+
+    /**
+     * Receives the results collected by a {@link FrameBatchDispatcher}.
+     */
+    interface Target {
+
+        /**
+         * Notifies the observers of the target.
+         *
+         * @param validationResult the latest result received by the dispatcher for this target
+         */
+        void deliver(Validator.ValidationResult validationResult);
+    }
+
+    /**
+     * Class constructor. Results are delivered on the vsync signalled by the main thread's
+     * {@link android.view.Choreographer}.
+     */
+    public FrameBatchDispatcher() {
+        this(ChoreographerFrameSource.getInstance());
+    }
+
+    /**
+     * Class constructor specifying the source of frames.
+     * <p>
+     * For testing.
+     *
+     * @param frameSource a {@link FrameSource}
+     */
+    FrameBatchDispatcher(FrameSource frameSource) {
+        this.frameSource = frameSource;
+    }
+
+    /**
+     * Returns the number of frames in which results were delivered.
+     *
+     * @return the number of delivered batches
+     */
+    public long getFrameCount() {
+        return this.frameCount;
+    }
+
+    /**
+     * Returns the number of results delivered to their observers.
+     *
+     * @return the number of delivered results
+     */
+    public long getDeliveredCount() {
+        return this.deliveredCount;
+    }
+
+    /**
+     * Returns the number of results that were replaced by a newer result for the same target
+     * before the frame began.
+     *
+     * @return the number of coalesced results
+     */
+    public long getCoalescedCount() {
+        return this.coalescedCount;
+    }
+
+    /**
+     * Queues a result for delivery at the start of the next frame.
+     *
+     * @param target the {@link Target} whose observers will be notified
+     * @param validationResult the result to be delivered
+     */
+    void dispatch(Target target, Validator.ValidationResult validationResult) {
+        if (this.pending.put(target, validationResult) != null) {
+            this.coalescedCount++;
+        }
+
+        if (!this.frameScheduled) {
+            this.frameScheduled = true;
+            this.frameSource.postFrameCallback(this.frameCallback);
+        }
+    }
+
+    /**
+     * Drops a result that hasn't been delivered yet.
+     *
+     * @param target the {@link Target} supplied to {@link #dispatch(Target, Validator.ValidationResult)}
+     */
+    void cancel(Target target) {
+        this.pending.remove(target);
+    }
+
+    /**
+     * Delivers every queued result.
+     */
+    private void doFrame() {
+        this.frameScheduled = false;
+
+        if (this.pending.isEmpty()) {
+            return;
+        }
+
+        // Results dispatched by an observer are delivered in the following frame.
+        Map<Target, Validator.ValidationResult> batch = this.pending;
+        this.pending = new LinkedHashMap<>();
+        this.frameCount++;
+
+        for (Map.Entry<Target, Validator.ValidationResult> entry : batch.entrySet()) {
+            entry.getKey().deliver(entry.getValue());
+            this.deliveredCount++;
+        }
+    }
+}
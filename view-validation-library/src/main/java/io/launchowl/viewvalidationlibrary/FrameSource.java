@@ -0,0 +1,16 @@
+package io.launchowl.viewvalidationlibrary;
+
+/**
+ * An interface for any class that runs work on the main UI thread at the start of the next
+ * frame.
+ *
+ * @see ChoreographerFrameSource
+ */
+interface FrameSource {
+    /**
+     * Runs a {@link Runnable} on the main UI thread when the next frame begins.
+     *
+     * @param runnable the {@link Runnable} to be run
+     */
+    void postFrameCallback(Runnable runnable);
+}
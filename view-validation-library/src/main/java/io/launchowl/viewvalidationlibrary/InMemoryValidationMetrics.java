@@ -0,0 +1,360 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ValidationMetrics} that aggregates every measurement in memory.
+ * <p>
+ * Latencies are recorded in {@link Histogram} objects with power-of-two buckets, so memory use
+ * doesn't grow with the number of measurements. {@link #dump()} returns a readable summary,
+ * which is intended for debug builds.
+ * <p>
+ * Conditions are identified by their class name rather than held, so an instance installed via
+ * {@link ValidationMetrics#setDefault(ValidationMetrics)} doesn't keep a condition, or the
+ * {@link android.app.Activity} an anonymous condition belongs to, from being garbage
+ * collected. Conditions of the same class share their measurements.
+ * <pre>
+ * {@code
+ *  InMemoryValidationMetrics metrics = new InMemoryValidationMetrics();
+ *  ValidationMetrics.setDefault(metrics);
+ *  ...
+ *  Log.d(TAG, metrics.dump());
+ * }
+ * </pre>
+ */
+public class InMemoryValidationMetrics extends ValidationMetrics {
+    private final Map<String, Histogram> conditionLatency = new LinkedHashMap<>();
+    private final Histogram evaluationLatency = new Histogram();
+    private final Histogram asyncQueueWait = new Histogram();
+    private final Histogram observerDispatch = new Histogram();
+    private final Histogram roundLatency = new Histogram();
+    private final Set<String> offloadedConditions = new LinkedHashSet<>();
+    private long cancelledCount = 0;
+    private long supersededCount = 0;
+    private long timeoutCount = 0;
+    private int maxActiveThreads = 0;
+
+    @Override
+    public void onConditionEvaluated(Criteria.Condition<?> condition, boolean result, long durationNanos) {
+        conditionHistogram(condition).record(durationNanos);
+    }
+
+    @Override
+    public synchronized void onConditionOffloaded(Criteria<?> criteria, Criteria.Condition<?> condition,
+                                                  long averageNanos) {
+        this.offloadedConditions.add(condition.getClass().getName());
+    }
+
+    @Override
+    public void onAsyncConditionStarted(Criteria.AsyncCondition<?> asyncCondition, long queueWaitNanos,
+                                        int activeThreads) {
+        this.asyncQueueWait.record(queueWaitNanos);
+
+        synchronized (this) {
+            this.maxActiveThreads = Math.max(this.maxActiveThreads, activeThreads);
+        }
+    }
+
+    @Override
+    public void onAsyncConditionComplete(Criteria.AsyncCondition<?> asyncCondition, boolean result,
+                                         long durationNanos) {
+        conditionHistogram(asyncCondition).record(durationNanos);
+    }
+
+    @Override
+    public synchronized void onTimeout(Criteria<?> criteria, Criteria.AsyncCondition<?> asyncCondition) {
+        this.timeoutCount++;
+    }
+
+    @Override
+    public synchronized void onEvaluationCancelled(Criteria<?> criteria, boolean superseded) {
+        if (superseded) {
+            this.supersededCount++;
+        } else {
+            this.cancelledCount++;
+        }
+    }
+
+    @Override
+    public void onEvaluationComplete(Criteria<?> criteria, Validator.ValidationResult validationResult,
+                                     long durationNanos) {
+        this.evaluationLatency.record(durationNanos);
+    }
+
+    @Override
+    public void onObserversNotified(Validation validation, int observerCount, long durationNanos) {
+        this.observerDispatch.record(durationNanos);
+    }
+
+    @Override
+    public void onRoundComplete(ValidatorSet validatorSet, Validator.ValidationResult validationResult,
+                                long durationNanos) {
+        this.roundLatency.record(durationNanos);
+    }
+
+    /**
+     * Returns the latencies of a {@link Criteria.Condition} or {@link Criteria.AsyncCondition}.
+     *
+     * @param condition a synchronous or asynchronous condition
+     * @return the {@link Histogram} shared by the conditions of the same class, which is empty
+     * if none has been evaluated
+     */
+    public synchronized Histogram getConditionLatency(Object condition) {
+        Histogram histogram = this.conditionLatency.get(condition.getClass().getName());
+
+        return histogram != null ? histogram : new Histogram();
+    }
+
+    /**
+     * Returns the histogram of a condition's class, creating it on its first measurement.
+     *
+     * @param condition a synchronous or asynchronous condition
+     * @return the {@link Histogram} of the condition
+     */
+    private synchronized Histogram conditionHistogram(Object condition) {
+        String className = condition.getClass().getName();
+        Histogram histogram = this.conditionLatency.get(className);
+        if (histogram == null) {
+            histogram = new Histogram();
+            this.conditionLatency.put(className, histogram);
+        }
+
+        return histogram;
+    }
+
+    /**
+     * Returns the time between starting evaluations of a {@link Criteria} and their results.
+     *
+     * @return the {@link Histogram} of evaluation latencies
+     */
+    public Histogram getEvaluationLatency() {
+        return this.evaluationLatency;
+    }
+
+    /**
+     * Returns the time {@link Criteria.AsyncCondition} evaluations waited for a thread.
+     *
+     * @return the {@link Histogram} of queue wait times
+     */
+    public Histogram getAsyncQueueWait() {
+        return this.asyncQueueWait;
+    }
+
+    /**
+     * Returns the time taken to notify the {@link Observer} objects of a {@link Validator} or
+     * {@link ValidatorSet}.
+     *
+     * @return the {@link Histogram} of observer dispatch times
+     */
+    public Histogram getObserverDispatch() {
+        return this.observerDispatch;
+    }
+
+    /**
+     * Returns the time between starting rounds of a {@link ValidatorSet} and their results.
+     *
+     * @return the {@link Histogram} of round latencies
+     */
+    public Histogram getRoundLatency() {
+        return this.roundLatency;
+    }
+
+    /**
+     * Returns the class names of the synchronous conditions that were moved to a worker thread
+     * because they were too slow for the main UI thread.
+     *
+     * @return the class names of the offloaded conditions in the order they were first offloaded
+     */
+    public synchronized List<String> getOffloadedConditions() {
+        return new ArrayList<>(this.offloadedConditions);
+    }
+
+    /**
+     * Returns the number of evaluations cancelled via {@link Validator#cancelValidation()}.
+     *
+     * @return the number of cancelled evaluations
+     */
+    public synchronized long getCancelledCount() {
+        return this.cancelledCount;
+    }
+
+    /**
+     * Returns the number of evaluations dropped because a newer evaluation replaced them.
+     *
+     * @return the number of superseded evaluations
+     */
+    public synchronized long getSupersededCount() {
+        return this.supersededCount;
+    }
+
+    /**
+     * Returns the number of {@link Criteria} and {@link Criteria.AsyncCondition} timeouts.
+     *
+     * @return the number of timeouts
+     */
+    public synchronized long getTimeoutCount() {
+        return this.timeoutCount;
+    }
+
+    /**
+     * Returns the largest number of threads seen evaluating {@link Criteria.AsyncCondition}
+     * objects at the same time.
+     *
+     * @return the maximum number of active threads
+     */
+    public synchronized int getMaxActiveThreads() {
+        return this.maxActiveThreads;
+    }
+
+    /**
+     * Clears every measurement.
+     */
+    public synchronized void reset() {
+        this.conditionLatency.clear();
+        this.evaluationLatency.reset();
+        this.asyncQueueWait.reset();
+        this.observerDispatch.reset();
+        this.roundLatency.reset();
+        this.offloadedConditions.clear();
+        this.cancelledCount = 0;
+        this.supersededCount = 0;
+        this.timeoutCount = 0;
+        this.maxActiveThreads = 0;
+    }
+
+    /**
+     * Returns a summary of every measurement, one per line.
+     *
+     * @return a readable summary
+     */
+    public synchronized String dump() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("evaluation ").append(this.evaluationLatency).append('\n');
+        builder.append("round ").append(this.roundLatency).append('\n');
+        builder.append("observers ").append(this.observerDispatch).append('\n');
+        builder.append("queue wait ").append(this.asyncQueueWait).append('\n');
+
+        for (Map.Entry<String, Histogram> entry : this.conditionLatency.entrySet()) {
+            builder.append("condition ").append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+        }
+
+        for (String condition : this.offloadedConditions) {
+            builder.append("offloaded ").append(condition).append('\n');
+        }
+
+        builder.append("cancelled=").append(this.cancelledCount)
+                .append(" superseded=").append(this.supersededCount)
+                .append(" timeouts=").append(this.timeoutCount)
+                .append(" maxActiveThreads=").append(this.maxActiveThreads);
+
+        return builder.toString();
+    }
+
+    /**
+     * A latency histogram with a bucket per power of two nanoseconds.
+     * <p>
+     * Percentiles are reported as the upper bound of the bucket they fall in, so they are
+     * accurate to within a factor of two.
+     */
+    public static final class Histogram {
+        private final long[] buckets = new long[Long.SIZE];
+        private long count = 0;
+        private long totalNanos = 0;
+        private long maxNanos = 0;
+
+        /**
+         * Records a measurement.
+         *
+         * @param nanos the measured duration in nanoseconds
+         */
+        synchronized void record(long nanos) {
+            nanos = Math.max(0, nanos);
+            int bucket = nanos == 0 ? 0 : Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+            this.buckets[bucket]++;
+            this.count++;
+            this.totalNanos += nanos;
+            this.maxNanos = Math.max(this.maxNanos, nanos);
+        }
+
+        /**
+         * Returns the number of measurements.
+         *
+         * @return the number of measurements
+         */
+        public synchronized long getCount() {
+            return this.count;
+        }
+
+        /**
+         * Returns the mean of the measurements.
+         *
+         * @param unit the {@link TimeUnit} of the returned value
+         * @return the mean, or 0 if nothing was measured
+         */
+        public synchronized long getMean(TimeUnit unit) {
+            return this.count == 0 ? 0 : unit.convert(this.totalNanos / this.count, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Returns the largest measurement.
+         *
+         * @param unit the {@link TimeUnit} of the returned value
+         * @return the maximum, or 0 if nothing was measured
+         */
+        public synchronized long getMax(TimeUnit unit) {
+            return unit.convert(this.maxNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Returns the value below which the supplied percentage of measurements fall.
+         *
+         * @param percentile a percentage between 0 and 100, for example 99
+         * @param unit the {@link TimeUnit} of the returned value
+         * @return the upper bound of the bucket containing the percentile, or 0 if nothing was
+         * measured
+         */
+        public synchronized long getPercentile(double percentile, TimeUnit unit) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100");
+            }
+
+            long rank = (long) Math.ceil(this.count * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < this.buckets.length; i++) {
+                seen += this.buckets[i];
+                if (seen >= rank && seen > 0) {
+                    long upperBound = i >= Long.SIZE - 2 ? Long.MAX_VALUE : (2L << i) - 1;
+                    return unit.convert(Math.min(upperBound, this.maxNanos), TimeUnit.NANOSECONDS);
+                }
+            }
+
+            return 0;
+        }
+
+        /**
+         * Clears every measurement.
+         */
+        synchronized void reset() {
+            Arrays.fill(this.buckets, 0);
+            this.count = 0;
+            this.totalNanos = 0;
+            this.maxNanos = 0;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "count=" + this.count
+                    + " mean=" + getMean(TimeUnit.MICROSECONDS) + "us"
+                    + " p50=" + getPercentile(50, TimeUnit.MICROSECONDS) + "us"
+                    + " p99=" + getPercentile(99, TimeUnit.MICROSECONDS) + "us"
+                    + " max=" + getMax(TimeUnit.MICROSECONDS) + "us";
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.widget.TextView;
+
+/**
+ * A condition that keeps its state up to date from the edits made to a text field, so testing
+ * it after a keystroke costs time proportional to the edit rather than to the whole text.
+ * <p>
+ * The condition is a {@link TextWatcher} and must be added to the view it validates via
+ * {@link TextView#addTextChangedListener(TextWatcher)}, before any watcher that requests a
+ * validation. {@link #onRemoved(CharSequence, int, int)} and
+ * {@link #onInserted(CharSequence, int, int)} are called for every edit.
+ * When the condition is evaluated it only rescans the whole text via
+ * {@link #onReset(CharSequence)} if its state might be out of date, for example the first
+ * time it's evaluated or after the view's text was replaced without notifying the watcher.
+ * <pre>
+ * {@code
+ *  IncrementalCondition validCharacters = Conditions.onlyCharactersIncremental(Conditions.LETTERS_AND_DIGITS);
+ *  bioEditText.addTextChangedListener(validCharacters);
+ *
+ *  Criteria<EditText> criteria = new Criteria<EditText>(bioEditText).test(validCharacters);
+ * }
+ * </pre>
+ * An incremental condition tracks a single view and must only be used on the main UI thread.
+ *
+ * @see Conditions#onlyCharactersIncremental(String)
+ */
+public abstract class IncrementalCondition implements Criteria.Condition<TextView>, TextWatcher {
+    private CharSequence trackedText;
+    private int trackedLength = -1;
+    private long incrementalUpdateCount = 0;
+    private long fullScanCount = 0;
+
+    /**
+     * Rebuilds the state of the condition from the whole text.
+     *
+     * @param text the current text of the view
+     */
+    protected abstract void onReset(CharSequence text);
+
+    /**
+     * Updates the state of the condition before characters are removed or replaced.
+     *
+     * @param text the text before the edit
+     * @param start the index of the first character being removed
+     * @param count the number of characters being removed
+     */
+    protected abstract void onRemoved(CharSequence text, int start, int count);
+
+    /**
+     * Updates the state of the condition after characters were inserted.
+     *
+     * @param text the text after the edit
+     * @param start the index of the first inserted character
+     * @param count the number of characters inserted
+     */
+    protected abstract void onInserted(CharSequence text, int start, int count);
+
+    /**
+     * Returns whether the text passes the condition according to the current state.
+     *
+     * @param length the length of the current text
+     * @return true if the test passed, otherwise false
+     */
+    protected abstract boolean isValid(int length);
+
+    @Override
+    public final boolean evaluate(TextView view) {
+        CharSequence text = view.getText();
+        if (text == null) {
+            text = "";
+        }
+
+        if (text != this.trackedText || text.length() != this.trackedLength) {
+            reset(text);
+        }
+
+        return isValid(this.trackedLength);
+    }
+
+    @Override
+    public final void beforeTextChanged(CharSequence s, int start, int count, int after) {
+        if (s == this.trackedText && s.length() == this.trackedLength && count > 0) {
+            onRemoved(s, start, count);
+        }
+    }
+
+    @Override
+    public final void onTextChanged(CharSequence s, int start, int before, int count) {
+        if (s != this.trackedText || this.trackedLength - before + count != s.length()) {
+            // The text wasn't being tracked or an edit was missed.
+            this.trackedText = null;
+            return;
+        }
+
+        if (count > 0) {
+            onInserted(s, start, count);
+        }
+
+        this.trackedLength = s.length();
+        this.incrementalUpdateCount++;
+    }
+
+    @Override
+    public final void afterTextChanged(Editable s) {
+    }
+
+    /**
+     * Returns the number of edits applied without rescanning the text.
+     *
+     * @return the number of incremental updates
+     */
+    public long getIncrementalUpdateCount() {
+        return this.incrementalUpdateCount;
+    }
+
+    /**
+     * Returns the number of times the whole text was rescanned.
+     *
+     * @return the number of calls to {@link #onReset(CharSequence)}
+     */
+    public long getFullScanCount() {
+        return this.fullScanCount;
+    }
+
+    /**
+     * Rebuilds the state from the whole text and starts tracking it.
+     *
+     * @param text the current text of the view
+     */
+    private void reset(CharSequence text) {
+        onReset(text);
+        this.trackedText = text;
+        this.trackedLength = text.length();
+        this.fullScanCount++;
+    }
+}
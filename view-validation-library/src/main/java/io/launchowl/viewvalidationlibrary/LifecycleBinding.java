@@ -0,0 +1,81 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.arch.lifecycle.Lifecycle;
+import android.arch.lifecycle.LifecycleObserver;
+import android.arch.lifecycle.LifecycleOwner;
+import android.arch.lifecycle.OnLifecycleEvent;
+
+/**
+ * Stops the validation work of a {@link Validator} or {@link ValidatorSet} when the screen that
+ * owns it stops or is destroyed.
+ * <p>
+ * When the {@link Lifecycle} is stopped, the target cancels its evaluations in progress, which
+ * cancels the {@link CancellationToken} of every running {@link Criteria.AsyncCondition},
+ * removes the ones still queued from the {@link AsyncConditionExecutor} and drops pending
+ * debounced validations and frame dispatches. Once the {@link Lifecycle} is destroyed the
+ * binding removes itself from it, and the target ignores further validation requests.
+ *
+ * @see Validator#bindTo(LifecycleOwner)
+ * @see ValidatorSet#bindTo(LifecycleOwner)
+ */
+final class LifecycleBinding implements LifecycleObserver {
+    private final Lifecycle lifecycle;
+    private final Target target;
+    private boolean destroyed = false;
+
+    /**
+     * The validation work that is stopped with the {@link Lifecycle}.
+     */
+    interface Target {
+
+        /**
+         * Cancels the evaluations in progress and drops pending deliveries.
+         */
+        void stop();
+    }
+
+    /**
+     * Class constructor. The binding observes the {@link Lifecycle} of the owner until it is
+     * destroyed or {@link #unbind()} is called.
+     *
+     * @param owner the {@link LifecycleOwner} whose {@link Lifecycle} is observed
+     * @param target the validation work to stop
+     */
+    LifecycleBinding(LifecycleOwner owner, Target target) {
+        this.lifecycle = owner.getLifecycle();
+        this.target = target;
+
+        if (this.lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            this.destroyed = true;
+        } else {
+            this.lifecycle.addObserver(this);
+        }
+    }
+
+    @OnLifecycleEvent(Lifecycle.Event.ON_ANY)
+    void onStateChanged(LifecycleOwner owner, Lifecycle.Event event) {
+        if (event == Lifecycle.Event.ON_STOP) {
+            this.target.stop();
+        } else if (event == Lifecycle.Event.ON_DESTROY) {
+            this.destroyed = true;
+            this.lifecycle.removeObserver(this);
+            this.target.stop();
+        }
+    }
+
+    /**
+     * Returns whether the {@link Lifecycle} has been destroyed.
+     *
+     * @return true if the {@link Lifecycle} has been destroyed, otherwise false
+     */
+    boolean isDestroyed() {
+        return this.destroyed;
+    }
+
+    /**
+     * Stops observing the {@link Lifecycle}.
+     */
+    void unbind() {
+        this.lifecycle.removeObserver(this);
+    }
+}
@@ -0,0 +1,39 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * A {@link Scheduler} backed by a {@link Handler} attached to the main {@link Looper}.
+ */
+class MainThreadScheduler implements Scheduler {
+    private static MainThreadScheduler instance;
+    private final Handler handler;
+
+    private MainThreadScheduler() {
+        this.handler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Returns the shared instance, creating it the first time it's requested.
+     *
+     * @return the shared {@link MainThreadScheduler}
+     */
+    static synchronized MainThreadScheduler getInstance() {
+        if (instance == null) {
+            instance = new MainThreadScheduler();
+        }
+
+        return instance;
+    }
+
+    @Override
+    public void postDelayed(Runnable runnable, long delayMillis) {
+        this.handler.postDelayed(runnable, delayMillis);
+    }
+
+    @Override
+    public void cancel(Runnable runnable) {
+        this.handler.removeCallbacks(runnable);
+    }
+}
@@ -2,6 +2,8 @@ package io.launchowl.viewvalidationlibrary;
 
 import android.view.View;
 
+import java.lang.ref.WeakReference;
+
 /**
  * This abstract class is used to observe if a {@link View} is valid.
  * <p>
@@ -17,16 +19,20 @@ import android.view.View;
  * @see io.launchowl.viewvalidationlibrary.Criteria.Condition
  */
 public abstract class Observer<T extends View> {
-    private final T observerView;
+    private final WeakReference<T> observerView;
+    private String sectionName;
 
     /**
      * Class constructor that is supplied with the view that will be udpated based on the
      * validity of the observed view.
+     * <p>
+     * The view is held weakly, so an observer kept past the screen that owns the view doesn't
+     * retain the screen.
      *
      * @param observerView the {@link View} that will be updated based on the observed view
      */
     public Observer(T observerView) {
-        this.observerView = observerView;
+        this.observerView = observerView != null ? new WeakReference<>(observerView) : null;
     }
 
     /**
@@ -37,16 +43,48 @@ public abstract class Observer<T extends View> {
      * @param validationResult the state of the view being validated
      */
     void update(Validator.ValidationResult validationResult) {
-        onValidationComplete(getView(), validationResult);
+        update(validationResult, 0);
+    }
+
+    /**
+     * Notifies the observer of the observee view's validity and which conditions failed.
+     * <p>
+     * This method calls {@link #onValidationComplete(View, Validator.ValidationResult, long)},
+     * unless the view has been garbage collected.
+     *
+     * @param validationResult the state of the view being validated
+     * @param failedConditions a bitmask of the conditions that failed
+     */
+    void update(Validator.ValidationResult validationResult, long failedConditions) {
+        T view = getView();
+        if (view == null && this.observerView != null) {
+            return;
+        }
+
+        onValidationComplete(view, validationResult, failedConditions);
+    }
+
+    /**
+     * Returns the name of the trace section of this observer.
+     *
+     * @return the name of the trace section
+     */
+    final String getSectionName() {
+        if (this.sectionName == null) {
+            this.sectionName = ValidationTracer.sectionName(this);
+        }
+
+        return this.sectionName;
     }
 
     /**
      * Returns the {@link View} supplied to the {@link #Observer(View)} constructor.
      *
-     * @return the {@link View} supplied to the {@link #Observer(View)} constructor
+     * @return the {@link View} supplied to the {@link #Observer(View)} constructor, or null if
+     * it has been garbage collected
      */
     T getView() {
-        return this.observerView;
+        return this.observerView != null ? this.observerView.get() : null;
     }
 
     /**
@@ -67,4 +105,32 @@ public abstract class Observer<T extends View> {
      * @param validationResult the state of the view being validated
      */
     protected abstract void onValidationComplete(T view, Validator.ValidationResult validationResult);
+
+    /**
+     * Defines what will happen to the observer's view based upon the validity of the view being
+     * observed and which conditions failed.
+     * <p>
+     * Bit <i>n</i> of <i>failedConditions</i> is set if the <i>n</i>th condition added to the
+     * {@link Criteria} failed, so a specific message can be shown without re-testing the view.
+     * The bitmask is 0 unless the result is {@link Validator.ValidationResult#Invalid} or
+     * {@link Validator.ValidationResult#Unknown}.
+     * <pre>
+     * {@code
+     *
+     *  protected void onValidationComplete(TextInputLayout view, Validator.ValidationResult validationResult,
+     *                                      long failedConditions) {
+     *   view.setError((failedConditions & 1) != 0 ? getString(R.string.error_invalid_characters) : null);
+     *  }
+     * }
+     * </pre>
+     * The default implementation calls
+     * {@link #onValidationComplete(View, Validator.ValidationResult)}.
+     *
+     * @param view the {@link View} supplied to the {@link #Observer(View)} constructor
+     * @param validationResult the state of the view being validated
+     * @param failedConditions a bitmask of the conditions that failed
+     */
+    protected void onValidationComplete(T view, Validator.ValidationResult validationResult, long failedConditions) {
+        onValidationComplete(view, validationResult);
+    }
 }
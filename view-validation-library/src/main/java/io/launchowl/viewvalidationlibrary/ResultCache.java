@@ -0,0 +1,150 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A size and time bounded, least recently used cache of condition results.
+ * <p>
+ * A result cache is created by {@link Criteria.AsyncCondition#memoize(Criteria.KeyExtractor, int, long, TimeUnit)}
+ * and holds the results of a single condition keyed by the input extracted from the view. When
+ * the cache is full the least recently used result is evicted. Results older than the
+ * <i>time to live</i> are treated as missing and evicted when they are next looked up.
+ */
+public class ResultCache {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<Object, CachedResult> cachedResults;
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * Class constructor specifying how many results are kept and for how long.
+     *
+     * @param maxSize the maximum number of results kept
+     * @param ttl how long a result is kept
+     * @param unit the {@link TimeUnit} of the time to live
+     */
+    public ResultCache(int maxSize, long ttl, TimeUnit unit) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.cachedResults = new LinkedHashMap<Object, CachedResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, CachedResult> eldest) {
+                if (size() > ResultCache.this.maxSize) {
+                    evictionCount++;
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for a key.
+     *
+     * @param key the key extracted from the view
+     * @return the cached result or null if no fresh result is cached
+     */
+    synchronized Boolean get(Object key) {
+        CachedResult cachedResult = this.cachedResults.get(key);
+
+        if (cachedResult != null && now() - cachedResult.storedAt > this.ttlNanos) {
+            this.cachedResults.remove(key);
+            this.evictionCount++;
+            cachedResult = null;
+        }
+
+        if (cachedResult == null) {
+            this.missCount++;
+            return null;
+        }
+
+        this.hitCount++;
+        return cachedResult.result;
+    }
+
+    /**
+     * Caches a result.
+     *
+     * @param key the key extracted from the view
+     * @param result the result of testing the condition
+     */
+    synchronized void put(Object key, boolean result) {
+        this.cachedResults.put(key, new CachedResult(result, now()));
+    }
+
+    /**
+     * Removes all cached results. The counters are not reset.
+     */
+    public synchronized void clear() {
+        this.cachedResults.clear();
+    }
+
+    /**
+     * Returns the number of cached results.
+     *
+     * @return the number of cached results
+     */
+    public synchronized int size() {
+        return this.cachedResults.size();
+    }
+
+    /**
+     * Returns the number of lookups that found a fresh result.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that didn't find a fresh result.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * Returns the number of results removed because the cache was full or the result expired.
+     *
+     * @return the number of evicted results
+     */
+    public synchronized long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    /**
+     * Returns the current time in nanoseconds.
+     * <p>
+     * For testing.
+     *
+     * @return the current time in nanoseconds
+     */
+    long now() {
+        return System.nanoTime();
+    }
+
+    /**
+     * A cached result and the time it was stored.
+     */
+    private static class CachedResult {
+        final boolean result;
+        final long storedAt;
+
+        CachedResult(boolean result, long storedAt) {
+            this.result = result;
+            this.storedAt = storedAt;
+        }
+    }
+}
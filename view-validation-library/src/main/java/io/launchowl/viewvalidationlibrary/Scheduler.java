@@ -0,0 +1,23 @@
+package io.launchowl.viewvalidationlibrary;
+
+/**
+ * An interface for any class that runs work on the main UI thread at a later time.
+ *
+ * @see MainThreadScheduler
+ */
+interface Scheduler {
+    /**
+     * Runs a {@link Runnable} on the main UI thread after a delay.
+     *
+     * @param runnable the {@link Runnable} to be run
+     * @param delayMillis the delay in milliseconds
+     */
+    void postDelayed(Runnable runnable, long delayMillis);
+
+    /**
+     * Removes a {@link Runnable} that hasn't run yet.
+     *
+     * @param runnable the {@link Runnable} supplied to {@link #postDelayed(Runnable, long)}
+     */
+    void cancel(Runnable runnable);
+}
@@ -0,0 +1,218 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shares a single in-flight evaluation between {@link Criteria.AsyncCondition} objects that
+ * test the same input.
+ * <p>
+ * Asynchronous conditions opt in via
+ * {@link Criteria.AsyncCondition#singleFlight(Object, Criteria.KeyExtractor)}. While an
+ * evaluation for an identity and key is running, other conditions with the same identity and key
+ * subscribe to it instead of starting their own. The result is delivered to every subscriber, and
+ * the evaluation is only cancelled once every subscriber has cancelled.
+ * <p>
+ * All methods must be called on the main UI thread.
+ */
+final class SingleFlight {
+    private static final Map<FlightKey, Flight> flights = new HashMap<>();
+    private static long joinedCount = 0;
+
+    private SingleFlight() {
+    }
+
+    /**
+     * Returns the in-flight evaluation for an identity and key.
+     *
+     * @param identity the identity supplied to
+     * {@link Criteria.AsyncCondition#singleFlight(Object, Criteria.KeyExtractor)}
+     * @param key the key extracted from the view
+     * @return the in-flight evaluation or null if there isn't one
+     */
+    static Flight find(Object identity, Object key) {
+        return flights.get(new FlightKey(identity, key));
+    }
+
+    /**
+     * Registers a new in-flight evaluation.
+     *
+     * @param identity the identity supplied to
+     * {@link Criteria.AsyncCondition#singleFlight(Object, Criteria.KeyExtractor)}
+     * @param key the key extracted from the view
+     * @param task the task performing the evaluation
+     * @param executor the executor the task was submitted to
+     * @return the new in-flight evaluation
+     */
+    static Flight start(Object identity, Object key, AsyncConditionExecutor.Task task, AsyncConditionExecutor executor) {
+        FlightKey flightKey = new FlightKey(identity, key);
+        Flight flight = new Flight(flightKey, task, executor);
+        flights.put(flightKey, flight);
+
+        return flight;
+    }
+
+    /**
+     * Returns the number of evaluations that subscribed to an in-flight evaluation instead of
+     * starting their own.
+     * <p>
+     * For testing.
+     *
+     * @return the number of shared evaluations
+     */
+    static long getJoinedCount() {
+        return joinedCount;
+    }
+
+    /**
+     * Returns the number of in-flight evaluations.
+     * <p>
+     * For testing.
+     *
+     * @return the number of in-flight evaluations
+     */
+    static int size() {
+        return flights.size();
+    }
+
+    /**
+     * A single evaluation shared by one or more subscribers.
+     */
+    static final class Flight {
+        private final FlightKey flightKey;
+        private final AsyncConditionExecutor.Task task;
+        private final AsyncConditionExecutor executor;
+        private final List<Criteria.AsyncCondition<?>> subscribers = new ArrayList<>();
+        private final List<Integer> generations = new ArrayList<>();
+        private boolean finished = false;
+
+        private Flight(FlightKey flightKey, AsyncConditionExecutor.Task task, AsyncConditionExecutor executor) {
+            this.flightKey = flightKey;
+            this.task = task;
+            this.executor = executor;
+        }
+
+        /**
+         * Adds a subscriber that will receive the result.
+         *
+         * @param asyncCondition the subscribing condition
+         * @param generation the generation of the subscriber's evaluation
+         */
+        void subscribe(Criteria.AsyncCondition<?> asyncCondition, int generation) {
+            if (!this.subscribers.isEmpty()) {
+                joinedCount++;
+            }
+
+            this.subscribers.add(asyncCondition);
+            this.generations.add(generation);
+        }
+
+        /**
+         * Removes a subscriber. The evaluation is cancelled once no subscribers remain.
+         *
+         * @param asyncCondition the subscriber to be removed
+         */
+        void unsubscribe(Criteria.AsyncCondition<?> asyncCondition) {
+            int index = this.subscribers.indexOf(asyncCondition);
+            if (index < 0) {
+                return;
+            }
+
+            this.subscribers.remove(index);
+            this.generations.remove(index);
+
+            if (this.subscribers.isEmpty() && !this.finished) {
+                this.finished = true;
+                this.task.cancel(false);
+                this.executor.remove(this.task);
+                flights.remove(this.flightKey);
+            }
+        }
+
+        /**
+         * Delivers the result to every subscriber.
+         *
+         * @param result the result of testing the condition
+         */
+        void finish(boolean result) {
+            deliver(false, result);
+        }
+
+        /**
+         * Notifies every subscriber that the executor rejected the evaluation.
+         */
+        void reject() {
+            deliver(true, false);
+        }
+
+        /**
+         * Delivers the outcome of the evaluation to every subscriber, unless it has already
+         * been delivered.
+         *
+         * @param rejected true if the executor rejected the evaluation
+         * @param result the result of testing the condition, ignored if rejected is true
+         */
+        private void deliver(boolean rejected, boolean result) {
+            if (this.finished) {
+                return;
+            }
+
+            this.finished = true;
+            flights.remove(this.flightKey);
+
+            List<Criteria.AsyncCondition<?>> subscribers = new ArrayList<>(this.subscribers);
+            List<Integer> generations = new ArrayList<>(this.generations);
+            this.subscribers.clear();
+            this.generations.clear();
+
+            for (int i = 0; i < subscribers.size(); i++) {
+                if (rejected) {
+                    subscribers.get(i).onFlightRejected(this, generations.get(i));
+                } else {
+                    subscribers.get(i).onFlightResult(this, generations.get(i), result);
+                }
+            }
+        }
+
+        /**
+         * Returns the number of subscribers.
+         * <p>
+         * For testing.
+         *
+         * @return the number of subscribers
+         */
+        int getSubscriberCount() {
+            return this.subscribers.size();
+        }
+    }
+
+    /**
+     * The identity of a condition combined with the key extracted from the view.
+     */
+    private static final class FlightKey {
+        private final Object identity;
+        private final Object key;
+
+        FlightKey(Object identity, Object key) {
+            this.identity = identity;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof FlightKey)) {
+                return false;
+            }
+
+            FlightKey flightKey = (FlightKey) other;
+            return this.identity.equals(flightKey.identity) && this.key.equals(flightKey.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.identity.hashCode() + this.key.hashCode();
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.view.View;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class re-evaluates only the {@link Validator} objects affected by a change to a view.
+ * <p>
+ * Each {@link Validator} reads the view supplied to its {@link Criteria} and the views declared
+ * via {@link Criteria#dependsOn(View...)}. When a view changes, {@link #viewChanged(View)}
+ * validates every validator that reads it, followed by the validators that read the views of
+ * those validators, and so on. Validators are always validated in dependency order, so a
+ * validator is validated after the validators of the views it depends on.
+ * <p>
+ * On a large form this replaces calling {@link ValidatorSet#validate()} after every change,
+ * which evaluates every validator whether its input changed or not.
+ * <pre>
+ * {@code
+ *  Validator<EditText> passwordValidator = new Validator<>(new Criteria<EditText>(passwordEditText)
+ *          .test(minimumLength));
+ *  Validator<EditText> confirmValidator = new Validator<>(new Criteria<EditText>(confirmEditText)
+ *          .dependsOn(passwordEditText)
+ *          .test(matchesPassword));
+ *
+ *  ValidationGraph graph = new ValidationGraph(passwordValidator, confirmValidator);
+ *
+ *  // Validates passwordValidator, then confirmValidator
+ *  graph.viewChanged(passwordEditText);
+ *
+ *  // Only validates confirmValidator
+ *  graph.viewChanged(confirmEditText);
+ * }
+ * </pre>
+ * Dependencies must not form a cycle. This class must be used on the main UI thread.
+ */
+public class ValidationGraph implements Validation {
+    private final Set<Validator> validators;
+    private final Map<View, List<Validator>> readers = new HashMap<>();
+    private List<Validator> order;
+    private long evaluationCount = 0;
+    private long skippedEvaluationCount = 0;
+
+    /**
+     * Class constructor that accepts {@link Validator} objects.
+     * <p>
+     * Multiple {@link Validator} objects can be supplied as a comma-delimited list.
+     *
+     * @param validators zero or more {@link Validator} objects
+     */
+    public ValidationGraph(Validator... validators) {
+        this.validators = new LinkedHashSet<>(Arrays.asList(validators));
+    }
+
+    /**
+     * Adds {@link Validator} objects.
+     * <p>
+     * The dependencies of a validator are read when the graph is next used, so
+     * {@link Criteria#dependsOn(View...)} should be called before then.
+     *
+     * @param validators one or more {@link Validator} objects
+     * @return true if any {@link Validator} was added, otherwise false
+     */
+    public boolean add(Validator... validators) {
+        this.order = null;
+        return this.validators.addAll(Arrays.asList(validators));
+    }
+
+    /**
+     * Removes a {@link Validator}.
+     *
+     * @param validator the {@link Validator} to be removed
+     * @return true if the {@link Validator} was found and removed, otherwise false
+     */
+    public boolean remove(Validator validator) {
+        this.order = null;
+        return this.validators.remove(validator);
+    }
+
+    /**
+     * Validates every {@link Validator} in dependency order.
+     *
+     * @throws IllegalStateException if the dependencies form a cycle
+     */
+    @Override
+    public void validate() {
+        List<Validator> order = getOrder();
+
+        for (int i = 0; i < order.size(); i++) {
+            order.get(i).validate();
+        }
+        this.evaluationCount += order.size();
+    }
+
+    /**
+     * Validates the {@link Validator} objects that depend on a view, directly or through the
+     * views of other validators, in dependency order.
+     * <p>
+     * Call this method when the content of a view changes, for example from
+     * {@link android.text.TextWatcher#afterTextChanged(android.text.Editable)}. Validators that
+     * don't depend on the view aren't validated and are counted by
+     * {@link #getSkippedEvaluationCount()}.
+     *
+     * @param view the view that changed
+     * @throws IllegalStateException if the dependencies form a cycle
+     */
+    public void viewChanged(View view) {
+        List<Validator> order = getOrder();
+        Set<Validator> affected = new HashSet<>();
+        ArrayDeque<View> changed = new ArrayDeque<>();
+        changed.add(view);
+
+        while (!changed.isEmpty()) {
+            List<Validator> readers = this.readers.get(changed.poll());
+            if (readers == null) {
+                continue;
+            }
+
+            for (int i = 0; i < readers.size(); i++) {
+                Validator reader = readers.get(i);
+                if (affected.add(reader)) {
+                    changed.add(viewOf(reader));
+                }
+            }
+        }
+
+        for (int i = 0; i < order.size(); i++) {
+            Validator validator = order.get(i);
+            if (affected.contains(validator)) {
+                validator.validate();
+                this.evaluationCount++;
+            } else {
+                this.skippedEvaluationCount++;
+            }
+        }
+    }
+
+    /**
+     * Cancels the validation in progress of every {@link Validator}.
+     */
+    public void cancelValidation() {
+        for (Validator validator : this.validators) {
+            validator.cancelValidation();
+        }
+    }
+
+    /**
+     * Returns the number of {@link Validator} evaluations started by this graph.
+     *
+     * @return the number of evaluations
+     */
+    public long getEvaluationCount() {
+        return this.evaluationCount;
+    }
+
+    /**
+     * Returns the number of {@link Validator} evaluations skipped by {@link #viewChanged(View)}
+     * because the validator didn't depend on the view that changed.
+     *
+     * @return the number of skipped evaluations
+     */
+    public long getSkippedEvaluationCount() {
+        return this.skippedEvaluationCount;
+    }
+
+    /**
+     * Returns the {@link Validator} objects in dependency order, sorting them first if a
+     * validator was added or removed.
+     * <p>
+     * For testing.
+     *
+     * @return the {@link Validator} objects in the order they are validated
+     * @throws IllegalStateException if the dependencies form a cycle
+     */
+    List<Validator> getOrder() {
+        if (this.order == null) {
+            this.order = sort();
+        }
+
+        return this.order;
+    }
+
+    /**
+     * Indexes the views read by each {@link Validator} and sorts the validators topologically.
+     * <p>
+     * A validator that reads the view of another validator is sorted after it. Otherwise,
+     * validators keep the order they were added in.
+     *
+     * @return the {@link Validator} objects in dependency order
+     * @throws IllegalStateException if the dependencies form a cycle
+     */
+    private List<Validator> sort() {
+        this.readers.clear();
+        Set<View> ownedViews = new HashSet<>();
+
+        for (Validator validator : this.validators) {
+            ownedViews.add(viewOf(validator));
+            addReader(viewOf(validator), validator);
+
+            List<View> dependencies = dependenciesOf(validator);
+            for (int i = 0; i < dependencies.size(); i++) {
+                addReader(dependencies.get(i), validator);
+            }
+        }
+
+        // Count the validators each validator must wait for.
+        Map<Validator, Integer> pendingUpstream = new HashMap<>();
+        for (Validator validator : this.validators) {
+            int upstream = 0;
+
+            List<View> dependencies = dependenciesOf(validator);
+            for (int i = 0; i < dependencies.size(); i++) {
+                if (ownedViews.contains(dependencies.get(i))) {
+                    upstream += countOwners(dependencies.get(i));
+                }
+            }
+            pendingUpstream.put(validator, upstream);
+        }
+
+        List<Validator> order = new ArrayList<>(this.validators.size());
+        Set<Validator> remaining = new LinkedHashSet<>(this.validators);
+        while (!remaining.isEmpty()) {
+            Validator next = null;
+            for (Validator validator : remaining) {
+                if (pendingUpstream.get(validator) == 0) {
+                    next = validator;
+                    break;
+                }
+            }
+
+            if (next == null) {
+                this.readers.clear();
+                throw new IllegalStateException("The dependencies of " + remaining + " form a cycle");
+            }
+
+            remaining.remove(next);
+            order.add(next);
+
+            // Validators that validate the same view don't depend on each other.
+            List<Validator> downstream = this.readers.get(viewOf(next));
+            for (int i = 0; i < downstream.size(); i++) {
+                Validator reader = downstream.get(i);
+                if (viewOf(reader) != viewOf(next) && remaining.contains(reader)) {
+                    pendingUpstream.put(reader, pendingUpstream.get(reader) - 1);
+                }
+            }
+        }
+
+        return Collections.unmodifiableList(order);
+    }
+
+    /**
+     * Returns the number of {@link Validator} objects that validate a view.
+     *
+     * @param view a view
+     * @return the number of validators whose {@link Criteria} was supplied the view
+     */
+    private int countOwners(View view) {
+        int owners = 0;
+
+        List<Validator> readers = this.readers.get(view);
+        for (int i = 0; i < readers.size(); i++) {
+            if (viewOf(readers.get(i)) == view) {
+                owners++;
+            }
+        }
+
+        return owners;
+    }
+
+    /**
+     * Records that a {@link Validator} reads a view.
+     *
+     * @param view a view read by the validator
+     * @param validator the {@link Validator}
+     */
+    private void addReader(View view, Validator validator) {
+        List<Validator> readers = this.readers.get(view);
+        if (readers == null) {
+            readers = new ArrayList<>(1);
+            this.readers.put(view, readers);
+        }
+
+        if (!readers.contains(validator)) {
+            readers.add(validator);
+        }
+    }
+
+    /**
+     * Returns the view validated by a {@link Validator}.
+     *
+     * @param validator a {@link Validator}
+     * @return the view supplied to the validator's {@link Criteria}
+     */
+    private static View viewOf(Validator<?> validator) {
+        return validator.criteria.getValidatedView();
+    }
+
+    /**
+     * Returns the views a {@link Validator} depends on besides its own.
+     *
+     * @param validator a {@link Validator}
+     * @return the views supplied to {@link Criteria#dependsOn(View...)}
+     */
+    private static List<View> dependenciesOf(Validator<?> validator) {
+        return validator.criteria.getDependencies();
+    }
+}
@@ -0,0 +1,159 @@
+package io.launchowl.viewvalidationlibrary;
+
+/**
+ * Receives measurements from every {@link Criteria}, {@link Validator}, {@link ValidatorSet} and
+ * {@link Criteria.AsyncCondition}.
+ * <p>
+ * Every method does nothing by default, so an implementation only overrides the measurements it
+ * is interested in. Unless {@link #setDefault(ValidationMetrics)} is called, a no-op instance is
+ * used and the library doesn't take any measurements.
+ * <p>
+ * Methods are called on the main UI thread, except
+ * {@link #onAsyncConditionStarted(Criteria.AsyncCondition, long, int)} which is called on the
+ * worker thread that runs the condition. Implementations must be thread-safe and should return
+ * quickly.
+ * <pre>
+ * {@code
+ *  if (BuildConfig.DEBUG) {
+ *      ValidationMetrics.setDefault(new InMemoryValidationMetrics());
+ *  }
+ * }
+ * </pre>
+ *
+ * @see InMemoryValidationMetrics
+ */
+public abstract class ValidationMetrics {
+    private static final ValidationMetrics NONE = new ValidationMetrics() {
+    };
+
+    private static volatile ValidationMetrics defaultMetrics = NONE;
+
+    /**
+     * Returns the metrics used by the library.
+     *
+     * @return the {@link ValidationMetrics} supplied to {@link #setDefault(ValidationMetrics)} or
+     * a no-op instance
+     */
+    public static ValidationMetrics getDefault() {
+        return defaultMetrics;
+    }
+
+    /**
+     * Replaces the metrics used by the library.
+     *
+     * @param metrics the new default {@link ValidationMetrics}, or null to stop taking measurements
+     */
+    public static void setDefault(ValidationMetrics metrics) {
+        defaultMetrics = metrics != null ? metrics : NONE;
+    }
+
+    /**
+     * Returns whether measurements are taken, so the cost of timing is only paid when
+     * {@link #setDefault(ValidationMetrics)} was called.
+     *
+     * @return true unless this is the no-op instance
+     */
+    final boolean isEnabled() {
+        return this != NONE;
+    }
+
+    /**
+     * This method is called after a synchronous {@link Criteria.Condition} has been tested.
+     *
+     * @param condition the condition that was tested
+     * @param result the result of testing the condition
+     * @param durationNanos the time taken to test the condition
+     */
+    public void onConditionEvaluated(Criteria.Condition<?> condition, boolean result, long durationNanos) {
+    }
+
+    /**
+     * This method is called when a synchronous {@link Criteria.Condition} is moved to a worker
+     * thread because it exceeded the budget supplied to
+     * {@link Criteria#offloadSlowConditions(long, java.util.concurrent.TimeUnit)}.
+     *
+     * @param criteria the {@link Criteria} that offloaded the condition
+     * @param condition the condition that was offloaded
+     * @param averageNanos the moving average of the time taken to test the condition
+     */
+    public void onConditionOffloaded(Criteria<?> criteria, Criteria.Condition<?> condition, long averageNanos) {
+    }
+
+    /**
+     * This method is called on the worker thread when an {@link Criteria.AsyncCondition} starts
+     * running.
+     *
+     * @param asyncCondition the condition that is about to be evaluated
+     * @param queueWaitNanos the time the evaluation waited for a thread
+     * @param activeThreads the number of threads of the {@link AsyncConditionExecutor} that are
+     *                      evaluating a condition, including this one
+     */
+    public void onAsyncConditionStarted(Criteria.AsyncCondition<?> asyncCondition, long queueWaitNanos,
+                                        int activeThreads) {
+    }
+
+    /**
+     * This method is called when the result of an {@link Criteria.AsyncCondition} is delivered.
+     *
+     * @param asyncCondition the condition that completed
+     * @param result the result of testing the condition
+     * @param durationNanos the time between starting the evaluation and delivering its result
+     */
+    public void onAsyncConditionComplete(Criteria.AsyncCondition<?> asyncCondition, boolean result,
+                                         long durationNanos) {
+    }
+
+    /**
+     * This method is called when an {@link Criteria.AsyncCondition} or a whole {@link Criteria}
+     * times out.
+     *
+     * @param criteria the {@link Criteria} whose evaluation timed out
+     * @param asyncCondition the condition that timed out, or null if the timeout of the
+     *                       {@link Criteria} elapsed
+     */
+    public void onTimeout(Criteria<?> criteria, Criteria.AsyncCondition<?> asyncCondition) {
+    }
+
+    /**
+     * This method is called when an evaluation in progress is dropped.
+     *
+     * @param criteria the {@link Criteria} whose evaluation was dropped
+     * @param superseded true if a newer evaluation replaced it, false if it was cancelled via
+     *                   {@link Validator#cancelValidation()}
+     */
+    public void onEvaluationCancelled(Criteria<?> criteria, boolean superseded) {
+    }
+
+    /**
+     * This method is called when an evaluation of a {@link Criteria} completes.
+     *
+     * @param criteria the {@link Criteria} that was evaluated
+     * @param validationResult the result of the evaluation
+     * @param durationNanos the time between starting the evaluation and its result
+     */
+    public void onEvaluationComplete(Criteria<?> criteria, Validator.ValidationResult validationResult,
+                                     long durationNanos) {
+    }
+
+    /**
+     * This method is called after the {@link Observer} objects of a {@link Validator} or
+     * {@link ValidatorSet} have been notified.
+     *
+     * @param validation the {@link Validator} or {@link ValidatorSet} that notified its observers
+     * @param observerCount the number of observers
+     * @param durationNanos the time taken by the observers
+     */
+    public void onObserversNotified(Validation validation, int observerCount, long durationNanos) {
+    }
+
+    /**
+     * This method is called when a round of a {@link ValidatorSet} completes.
+     *
+     * @param validatorSet the {@link ValidatorSet}
+     * @param validationResult the combined result of the round
+     * @param durationNanos the time between starting the round and its result
+     */
+    public void onRoundComplete(ValidatorSet validatorSet, Validator.ValidationResult validationResult,
+                                long durationNanos) {
+    }
+}
@@ -0,0 +1,117 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.os.Trace;
+
+/**
+ * Wraps validation work in named trace sections so that system traces show which
+ * {@link Criteria.Condition}, {@link Criteria.AsyncCondition} or {@link Observer} took frame time.
+ * <p>
+ * On a device the default tracer writes {@link Trace} sections, which appear in systrace and
+ * Perfetto. On the JVM, for example in unit tests, the default tracer does nothing. A different
+ * tracer can be supplied via {@link #setDefault(ValidationTracer)}.
+ * <p>
+ * Sections are always ended on the thread that began them and are properly nested:
+ * <ul>
+ *     <li><i>Criteria.evaluate</i> contains a section per synchronous condition, named after
+ *     the class of the condition, and the notification of the observers if the evaluation
+ *     completes immediately.</li>
+ *     <li><i>AsyncCondition.evaluate</i> runs on the worker thread and contains a section named
+ *     after the class of the condition.</li>
+ *     <li><i>AsyncCondition.complete</i> runs on the main UI thread when a result is delivered.</li>
+ *     <li><i>Validator.notify</i> contains a section per {@link Observer}, named after the class
+ *     of the observer.</li>
+ * </ul>
+ */
+public abstract class ValidationTracer {
+    static final String EVALUATE_SECTION = "Criteria.evaluate";
+    static final String ASYNC_EVALUATE_SECTION = "AsyncCondition.evaluate";
+    static final String ASYNC_COMPLETE_SECTION = "AsyncCondition.complete";
+    static final String NOTIFY_SECTION = "Validator.notify";
+
+    // android.os.Trace truncates longer section names.
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    private static volatile ValidationTracer defaultTracer;
+
+    /**
+     * Begins a section. Every call must be followed by {@link #endSection()} on the same thread.
+     *
+     * @param name the name of the section
+     */
+    public abstract void beginSection(String name);
+
+    /**
+     * Ends the most recent section begun on the calling thread.
+     */
+    public abstract void endSection();
+
+    /**
+     * Returns the tracer used by the library.
+     *
+     * @return the {@link ValidationTracer} supplied to {@link #setDefault(ValidationTracer)}, or
+     * a tracer that writes {@link Trace} sections on a device and does nothing on the JVM
+     */
+    public static ValidationTracer getDefault() {
+        ValidationTracer tracer = defaultTracer;
+        if (tracer == null) {
+            tracer = "Dalvik".equals(System.getProperty("java.vm.name")) ? new AndroidTracer() : new NoOpTracer();
+            defaultTracer = tracer;
+        }
+
+        return tracer;
+    }
+
+    /**
+     * Replaces the tracer used by the library.
+     *
+     * @param tracer the new default {@link ValidationTracer}, or null to restore the platform
+     *               default
+     */
+    public static void setDefault(ValidationTracer tracer) {
+        defaultTracer = tracer;
+    }
+
+    /**
+     * Returns the name of the section for a condition or observer.
+     * <p>
+     * The package is dropped and the name is shortened to the length supported by {@link Trace}.
+     * The result should be kept, since a new string is built on every call.
+     *
+     * @param object a condition or observer
+     * @return the name of the section
+     */
+    static String sectionName(Object object) {
+        String name = object.getClass().getName();
+        name = name.substring(name.lastIndexOf('.') + 1);
+
+        return name.length() > MAX_SECTION_NAME_LENGTH ? name.substring(0, MAX_SECTION_NAME_LENGTH) : name;
+    }
+
+    /**
+     * Writes {@link Trace} sections.
+     */
+    private static final class AndroidTracer extends ValidationTracer {
+        @Override
+        public void beginSection(String name) {
+            Trace.beginSection(name);
+        }
+
+        @Override
+        public void endSection() {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Does nothing, for when {@link Trace} isn't available.
+     */
+    private static final class NoOpTracer extends ValidationTracer {
+        @Override
+        public void beginSection(String name) {
+        }
+
+        @Override
+        public void endSection() {
+        }
+    }
+}
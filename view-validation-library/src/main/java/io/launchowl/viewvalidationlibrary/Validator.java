@@ -1,10 +1,15 @@
 package io.launchowl.viewvalidationlibrary;
 
+import android.arch.lifecycle.LifecycleOwner;
 import android.view.View;
+import android.widget.TextView;
 
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class is responsible for evaluating whether a {@link View} is valid.
@@ -23,11 +28,70 @@ import java.util.Set;
  * @param <T> the {@link View} being evaluated for a valid state
  */
 public class Validator<T extends View> implements Validation {
-    Set<Observer> observers;
+    List<Observer> observers;
     Criteria<T> criteria;
+    private final List<Criteria.EvalCompleteListener> evalCompleteListeners = new ArrayList<>(1);
+    private final Criteria.EvalCompleteListener criteriaCompleteListener = new Criteria.EvalCompleteListener() {
+        @Override
+        public void onComplete(ValidationResult validationResult) {
+            criteriaComplete(validationResult);
+        }
+    };
+    private Scheduler scheduler;
+    private boolean debouncedValidationPending = false;
+    private long elidedEvaluationCount = 0;
+    private int evaluationCount = 0;
+    private boolean distinctUntilChanged = false;
+    private final Map<Observer, Delivered> deliveredResults = new HashMap<>();
+    private long suppressedNotificationCount = 0;
+    private boolean notifyPending = false;
+    private long failedConditions = 0;
+    private Criteria.KeyExtractor<T> fingerprintExtractor;
+    private FrameBatchDispatcher frameBatchDispatcher;
+    private LifecycleBinding lifecycleBinding;
+    private final LifecycleBinding.Target lifecycleTarget = new LifecycleBinding.Target() {
+        @Override
+        public void stop() {
+            cancelValidation();
+        }
+    };
+    private final FrameBatchDispatcher.Target frameTarget = new FrameBatchDispatcher.Target() {
+        @Override
+        public void deliver(ValidationResult validationResult) {
+            notifyObservers(validationResult, failedConditions);
+        }
+    };
+    private final Runnable debouncedValidation = new Runnable() {
+        @Override
+        public void run() {
+            debouncedValidationPending = false;
+            validate();
+        }
+    };
     public enum ValidationResult {
+        /**
+         * All conditions passed.
+         */
         Valid,
-        Invalid
+
+        /**
+         * At least one condition failed.
+         */
+        Invalid,
+
+        /**
+         * No condition failed, but at least one condition timed out before it could be checked.
+         *
+         * @see Criteria#timeout(long, TimeUnit, ValidationResult)
+         * @see Criteria.AsyncCondition#timeout(long, TimeUnit, ValidationResult)
+         */
+        Unknown,
+
+        /**
+         * An evaluation is waiting on {@link Criteria.AsyncCondition} objects. Only delivered to
+         * observers if {@link Validator#notifyPending(boolean)} is enabled.
+         */
+        Pending
     }
 
     /**
@@ -36,7 +100,7 @@ public class Validator<T extends View> implements Validation {
      * @param criteria a {@link Criteria} object that contains all conditions to be tested
      */
     public Validator(Criteria<T> criteria) {
-        this.observers = new HashSet<>();
+        this.observers = new ArrayList<>();
         this.criteria = criteria;
     }
 
@@ -48,23 +112,407 @@ public class Validator<T extends View> implements Validation {
      * @param observers one or more {@link Observer} objects
      */
     public void observe(Observer... observers) {
-        Collections.addAll(this.observers, observers);
+        for (Observer observer : observers) {
+            if (!this.observers.contains(observer)) {
+                this.observers.add(observer);
+            }
+        }
+    }
+
+    /**
+     * Enables or disables distinct-until-changed delivery.
+     * <p>
+     * When enabled, an {@link Observer} is only notified if the result differs from the last
+     * result it was notified with by this validator. Suppressed notifications are counted by
+     * {@link #getSuppressedNotificationCount()}.
+     * <p>
+     * {@link #cancelValidation()} forgets the delivered results, so the next result is always
+     * delivered after views have been reset.
+     *
+     * @param distinctUntilChanged true to skip notifications that wouldn't change an observer
+     */
+    public void distinctUntilChanged(boolean distinctUntilChanged) {
+        this.distinctUntilChanged = distinctUntilChanged;
+        this.deliveredResults.clear();
+    }
+
+    /**
+     * Returns the number of {@link Observer} notifications skipped because the result was
+     * unchanged.
+     *
+     * @return the number of suppressed notifications
+     *
+     * @see #distinctUntilChanged(boolean)
+     */
+    public long getSuppressedNotificationCount() {
+        return this.suppressedNotificationCount;
+    }
+
+    /**
+     * Enables or disables {@link ValidationResult#Pending} notifications.
+     * <p>
+     * When enabled, the observers are notified with {@link ValidationResult#Pending} as soon as
+     * an evaluation has to wait on {@link Criteria.AsyncCondition} objects, for example to show
+     * a "checking" message. The final result follows once the conditions complete. Evaluations
+     * that complete immediately never notify {@link ValidationResult#Pending}.
+     *
+     * @param notifyPending true to notify observers while asynchronous conditions run
+     */
+    public void notifyPending(boolean notifyPending) {
+        this.notifyPending = notifyPending;
+    }
+
+    /**
+     * Sets how the input of this validator is fingerprinted by a {@link ValidatorSet} in
+     * incremental mode.
+     * <p>
+     * The key must change whenever anything the conditions depend on changes, and must
+     * implement {@link Object#equals(Object)}. By default the text of a {@link TextView} is
+     * used, along with the text of the views supplied to {@link Criteria#dependsOn(View...)}.
+     * Validators that read other kinds of views are validated in every round.
+     *
+     * @param keyExtractor a {@link Criteria.KeyExtractor} that returns the input the result
+     *                     depends on, or null to restore the default
+     *
+     * @see ValidatorSet#incremental(boolean)
+     */
+    public void fingerprint(Criteria.KeyExtractor<T> keyExtractor) {
+        this.fingerprintExtractor = keyExtractor;
+    }
+
+    /**
+     * Returns the fingerprint of the input of this validator.
+     *
+     * @return the key returned by the {@link Criteria.KeyExtractor} supplied to
+     * {@link #fingerprint(Criteria.KeyExtractor)}, the text of the {@link TextView} objects
+     * read by the conditions, or null if the input can't be fingerprinted
+     */
+    Object getFingerprint() {
+        T view = this.criteria.getValidatedView();
+        if (view == null) {
+            return null;
+        }
+
+        if (this.fingerprintExtractor != null) {
+            return this.fingerprintExtractor.extractKey(view);
+        }
+
+        List<View> dependencies = this.criteria.getDependencies();
+        if (dependencies.isEmpty()) {
+            return textOf(view);
+        }
+
+        String[] texts = new String[dependencies.size() + 1];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = textOf(i == 0 ? view : dependencies.get(i - 1));
+            if (texts[i] == null) {
+                return null;
+            }
+        }
+
+        return Arrays.asList(texts);
+    }
+
+    /**
+     * Returns the text of a view for {@link #getFingerprint()}.
+     *
+     * @param view a view read by the conditions
+     * @return the text of a {@link TextView}, otherwise null
+     */
+    private static String textOf(View view) {
+        if (view instanceof TextView) {
+            CharSequence text = ((TextView) view).getText();
+            return text != null ? text.toString() : null;
+        }
+
+        return null;
+    }
+
+    /**
+     * Delivers observer updates via a {@link FrameBatchDispatcher} instead of as soon as the
+     * {@link Criteria} completes.
+     * <p>
+     * Validators that share a dispatcher update their observers together at the start of the
+     * next frame.
+     *
+     * @param frameBatchDispatcher a {@link FrameBatchDispatcher}, or null to notify observers
+     *                             immediately
+     */
+    public void dispatchOnFrame(FrameBatchDispatcher frameBatchDispatcher) {
+        if (this.frameBatchDispatcher != null) {
+            this.frameBatchDispatcher.cancel(this.frameTarget);
+        }
+
+        this.frameBatchDispatcher = frameBatchDispatcher;
+    }
+
+    /**
+     * Stops the validation work of this validator with the {@link android.arch.lifecycle.Lifecycle}
+     * of a screen.
+     * <p>
+     * When the owner is stopped, the evaluation in progress is cancelled as if
+     * {@link #cancelValidation()} was called: running {@link Criteria.AsyncCondition} objects
+     * see their {@link CancellationToken} cancelled, queued ones are removed from the
+     * {@link AsyncConditionExecutor} and pending debounced validations and frame dispatches are
+     * dropped. Once the owner is destroyed, validation requests are ignored, so nothing started
+     * by a late callback outlives the screen.
+     * <pre>
+     * {@code
+     *  userNameValidator.bindTo(this);
+     * }
+     * </pre>
+     * This method must be called on the main UI thread.
+     *
+     * @param owner the {@link LifecycleOwner}, usually an {@link android.app.Activity} or a
+     *              fragment, or null to unbind
+     *
+     * @see ValidatorSet#bindTo(LifecycleOwner)
+     */
+    public void bindTo(LifecycleOwner owner) {
+        if (this.lifecycleBinding != null) {
+            this.lifecycleBinding.unbind();
+            this.lifecycleBinding = null;
+        }
+
+        if (owner != null) {
+            this.lifecycleBinding = new LifecycleBinding(owner, this.lifecycleTarget);
+        }
+    }
+
+    /**
+     * Returns whether the {@link LifecycleOwner} supplied to {@link #bindTo(LifecycleOwner)}
+     * has been destroyed.
+     *
+     * @return true if validation requests must be ignored, otherwise false
+     */
+    private boolean isDestroyed() {
+        return this.lifecycleBinding != null && this.lifecycleBinding.isDestroyed();
     }
 
     /**
      * Evaluate all conditions that belong to the {@link Criteria} object.
+     * <p>
+     * A request made via {@link #validateDebounced(long, TimeUnit)} that is still pending is
+     * replaced by this evaluation.
      */
     @Override
     public void validate() {
-        this.criteria.evaluate(new Criteria.EvalCompleteListener() {
-            @Override
-            public void onComplete(ValidationResult validationResult) {
-                Notifier.notify(observers, validationResult);
-            }
-        });
+        validate(null);
+    }
+
+    /**
+     * Evaluate all conditions that belong to the {@link Criteria} object and report the result
+     * to an additional listener after the observers have been notified.
+     * <p>
+     * Used by {@link ValidatorSet} to learn when each of its validators completes. The listener
+     * is called once with the next result of this validator, even if a later call to
+     * {@link #validate()} replaces the evaluation started here, so a round of a
+     * {@link ValidatorSet} completes when one of its validators is also validated on its own.
+     *
+     * @param evalCompleteListener an {@link Criteria.EvalCompleteListener}, or null
+     */
+    void validate(Criteria.EvalCompleteListener evalCompleteListener) {
+        if (isDestroyed()) {
+            return;
+        }
+
+        if (cancelDebouncedValidation()) {
+            this.elidedEvaluationCount++;
+        }
+
+        if (evalCompleteListener != null && !this.evalCompleteListeners.contains(evalCompleteListener)) {
+            this.evalCompleteListeners.add(evalCompleteListener);
+        }
+        this.evaluationCount++;
+        this.criteria.evaluate(this.criteriaCompleteListener);
+
+        if (this.notifyPending && this.criteria.isEvaluating()) {
+            deliver(ValidationResult.Pending, 0);
+        }
+    }
+
+    /**
+     * Stops reporting the next result to a listener supplied to
+     * {@link #validate(Criteria.EvalCompleteListener)}.
+     *
+     * @param evalCompleteListener the {@link Criteria.EvalCompleteListener} to be removed
+     */
+    void removeEvalCompleteListener(Criteria.EvalCompleteListener evalCompleteListener) {
+        this.evalCompleteListeners.remove(evalCompleteListener);
+    }
+
+    /**
+     * Returns the number of listeners waiting for the next result of this validator.
+     * <p>
+     * For testing.
+     *
+     * @return the number of listeners supplied to {@link #validate(Criteria.EvalCompleteListener)}
+     * that haven't been notified yet
+     */
+    int getEvalCompleteListenerCount() {
+        return this.evalCompleteListeners.size();
+    }
+
+    /**
+     * Returns the number of evaluations started by this validator.
+     * <p>
+     * Only the latest evaluation can complete, so a {@link ValidatorSet} compares this value
+     * when a result arrives with the one it expected when it started the evaluation.
+     *
+     * @return the number of evaluations started
+     */
+    int getEvaluationCount() {
+        return this.evaluationCount;
+    }
+
+    /**
+     * Notifies the observers and the listeners supplied to
+     * {@link #validate(Criteria.EvalCompleteListener)} once the {@link Criteria} completes.
+     *
+     * @param validationResult the state of the view being evaluated
+     */
+    private void criteriaComplete(ValidationResult validationResult) {
+        deliver(validationResult, this.criteria.getFailedConditions());
+
+        if (this.evalCompleteListeners.isEmpty()) {
+            return;
+        }
+
+        // A listener may start a new evaluation, so the waiting listeners are detached first.
+        Criteria.EvalCompleteListener[] evalCompleteListeners = this.evalCompleteListeners.toArray(
+                new Criteria.EvalCompleteListener[this.evalCompleteListeners.size()]);
+        this.evalCompleteListeners.clear();
+
+        for (Criteria.EvalCompleteListener evalCompleteListener : evalCompleteListeners) {
+            evalCompleteListener.onComplete(validationResult);
+        }
+    }
+
+    /**
+     * Notifies the observers now, or at the start of the next frame if a
+     * {@link FrameBatchDispatcher} was supplied.
+     *
+     * @param validationResult the state of the view being evaluated
+     * @param failedConditions a bitmask of the conditions that failed
+     */
+    private void deliver(ValidationResult validationResult, long failedConditions) {
+        if (this.frameBatchDispatcher != null) {
+            // The dispatcher only keeps the latest result, so the bitmask that goes with it is kept here.
+            this.failedConditions = failedConditions;
+            this.frameBatchDispatcher.dispatch(this.frameTarget, validationResult);
+        } else {
+            notifyObservers(validationResult, failedConditions);
+        }
+    }
+
+    /**
+     * Notifies the observers, skipping those that already have the result if
+     * distinct-until-changed delivery is enabled.
+     *
+     * @param validationResult the state of the view being evaluated
+     * @param failedConditions a bitmask of the conditions that failed
+     */
+    private void notifyObservers(ValidationResult validationResult, long failedConditions) {
+        ValidationMetrics metrics = ValidationMetrics.getDefault();
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+
+        if (this.distinctUntilChanged) {
+            this.suppressedNotificationCount += Notifier.notifyChanged(
+                    this.observers, validationResult, failedConditions, this.deliveredResults);
+        } else {
+            Notifier.notify(this.observers, validationResult, failedConditions);
+        }
+
+        if (metrics.isEnabled()) {
+            metrics.onObserversNotified(this, this.observers.size(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Drops the evaluation in progress, if any, without notifying the observers or the
+     * listeners supplied to {@link #validate(Criteria.EvalCompleteListener)}.
+     *
+     * @return true if an evaluation was in progress, otherwise false
+     */
+    boolean supersede() {
+        this.evalCompleteListeners.clear();
+        return this.criteria.supersede();
+    }
+
+    /**
+     * Evaluate all conditions that belong to the {@link Criteria} object once no further
+     * request has been made for the supplied delay.
+     * <p>
+     * Each request replaces the previous pending request and supersedes any evaluation that is
+     * still waiting on an {@link Criteria.AsyncCondition}, so a burst of requests (ex: one per
+     * keystroke) results in a single evaluation of the latest state of the view. Requests that
+     * were replaced are counted by {@link #getElidedEvaluationCount()}.
+     * <p>
+     * This method must be called on the main UI thread.
+     * <pre>
+     * {@code
+     *  public void afterTextChanged(Editable s) {
+     *      validator.validateDebounced(250, TimeUnit.MILLISECONDS);
+     *  }
+     * }
+     * </pre>
+     *
+     * @param delay the quiet period that must pass before the evaluation starts
+     * @param unit the {@link TimeUnit} of the delay
+     */
+    public void validateDebounced(long delay, TimeUnit unit) {
+        if (isDestroyed()) {
+            return;
+        }
+
+        Scheduler scheduler = getScheduler();
+
+        if (this.debouncedValidationPending) {
+            scheduler.cancel(this.debouncedValidation);
+            this.elidedEvaluationCount++;
+        } else if (this.criteria.supersede()) {
+            this.elidedEvaluationCount++;
+        }
+
+        this.debouncedValidationPending = true;
+        scheduler.postDelayed(this.debouncedValidation, unit.toMillis(delay));
+    }
+
+    /**
+     * Returns the number of evaluations that were requested via
+     * {@link #validateDebounced(long, TimeUnit)} but never delivered to the observers because a
+     * newer request replaced them.
+     *
+     * @return the number of elided evaluations
+     */
+    public long getElidedEvaluationCount() {
+        return this.elidedEvaluationCount;
+    }
+
+    /**
+     * Removes the request made via {@link #validateDebounced(long, TimeUnit)}, if any.
+     *
+     * @return true if a request was pending, otherwise false
+     */
+    private boolean cancelDebouncedValidation() {
+        if (!this.debouncedValidationPending) {
+            return false;
+        }
+
+        getScheduler().cancel(this.debouncedValidation);
+        this.debouncedValidationPending = false;
+        return true;
     }
 
     public void cancelValidation() {
+        cancelDebouncedValidation();
+
+        if (this.frameBatchDispatcher != null) {
+            this.frameBatchDispatcher.cancel(this.frameTarget);
+        }
+
+        this.deliveredResults.clear();
+        this.evalCompleteListeners.clear();
         this.criteria.cancelValidation();
     }
 
@@ -74,10 +522,35 @@ public class Validator<T extends View> implements Validation {
      * For testing.
      * @return a collection of {@link Observer} objects
      */
-    Set<Observer> getObservers() {
+    List<Observer> getObservers() {
         return this.observers;
     }
 
+    /**
+     * Sets the {@link Scheduler} used by {@link #validateDebounced(long, TimeUnit)}.
+     * <p>
+     * For testing.
+     *
+     * @param scheduler a {@link Scheduler}
+     */
+    void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the {@link Scheduler} used by {@link #validateDebounced(long, TimeUnit)}.
+     *
+     * @return the {@link Scheduler} supplied to {@link #setScheduler(Scheduler)} or the
+     * {@link MainThreadScheduler}
+     */
+    private Scheduler getScheduler() {
+        if (this.scheduler == null) {
+            this.scheduler = MainThreadScheduler.getInstance();
+        }
+
+        return this.scheduler;
+    }
+
     /**
      * A class that notifies a collection of {@link Observer} objects.
      */
@@ -88,11 +561,78 @@ public class Validator<T extends View> implements Validation {
          *
          * @param observers a collection of {@link Observer} objects
          * @param validationResult the state of the view being evaluated
+         * @param failedConditions a bitmask of the conditions that failed
          */
-         static void notify(Set<Observer> observers, ValidationResult validationResult) {
-            for (Observer observer : observers) {
-                observer.update(validationResult);
+         static void notify(List<Observer> observers, ValidationResult validationResult, long failedConditions) {
+            ValidationTracer tracer = ValidationTracer.getDefault();
+            tracer.beginSection(ValidationTracer.NOTIFY_SECTION);
+            try {
+                for (int i = 0; i < observers.size(); i++) {
+                    Observer observer = observers.get(i);
+                    tracer.beginSection(observer.getSectionName());
+                    try {
+                        observer.update(validationResult, failedConditions);
+                    } finally {
+                        tracer.endSection();
+                    }
+                }
+            } finally {
+                tracer.endSection();
             }
         }
+
+        /**
+         * Notifies the {@link Observer} objects whose last delivered result or failed conditions
+         * differ from the state of the view that's being evaluated.
+         *
+         * @param observers a collection of {@link Observer} objects
+         * @param validationResult the state of the view being evaluated
+         * @param failedConditions a bitmask of the conditions that failed
+         * @param deliveredResults the last result delivered to each observer, updated in place
+         * @return the number of observers that weren't notified because nothing changed
+         */
+        static int notifyChanged(List<Observer> observers, ValidationResult validationResult, long failedConditions,
+                                 Map<Observer, Delivered> deliveredResults) {
+            ValidationTracer tracer = ValidationTracer.getDefault();
+            int suppressed = 0;
+
+            tracer.beginSection(ValidationTracer.NOTIFY_SECTION);
+            try {
+                for (int i = 0; i < observers.size(); i++) {
+                    Observer observer = observers.get(i);
+                    Delivered delivered = deliveredResults.get(observer);
+                    if (delivered == null) {
+                        delivered = new Delivered();
+                        deliveredResults.put(observer, delivered);
+                    } else if (delivered.validationResult == validationResult
+                            && delivered.failedConditions == failedConditions) {
+                        suppressed++;
+                        continue;
+                    }
+
+                    delivered.validationResult = validationResult;
+                    delivered.failedConditions = failedConditions;
+                    tracer.beginSection(observer.getSectionName());
+                    try {
+                        observer.update(validationResult, failedConditions);
+                    } finally {
+                        tracer.endSection();
+                    }
+                }
+            } finally {
+                tracer.endSection();
+            }
+
+            return suppressed;
+        }
+    }
+
+    /**
+     * The last result delivered to an {@link Observer}, updated in place so that unchanged
+     * results can be detected without allocating.
+     */
+    private static class Delivered {
+        ValidationResult validationResult;
+        long failedConditions;
     }
 }
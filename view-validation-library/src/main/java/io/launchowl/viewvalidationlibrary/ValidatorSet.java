@@ -1,9 +1,17 @@
 package io.launchowl.viewvalidationlibrary;
 
+import android.arch.lifecycle.LifecycleOwner;
+
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class can be used to evaluate multiple {@link Validator} objects.
@@ -16,15 +24,130 @@ import java.util.Set;
  * capturing information about an individual. Instead of evaluating each
  * view after text is changed, all views could be evaluated when a
  * <i>continue</i> button is pressed.
+ * <p>
+ * Each call to {@link #validate()} starts a <i>round</i>. Once every {@link Validator} in the
+ * round has completed, the {@link Observer} objects added via {@link #observe(Observer[])} are
+ * notified once with the combined result (Valid only if every validator is valid) and the
+ * {@link SetCompleteListener} receives a {@link Result} containing the result of each validator.
+ * <p>
+ * In incremental mode (see {@link #incremental(boolean)}) a round only evaluates the validators
+ * whose input changed since their last result.
  */
 public class ValidatorSet implements Validation {
     private Set<Validator> validators;
+    private final Set<Observer> observers = new LinkedHashSet<>();
+    private SetCompleteListener setCompleteListener;
+    private boolean failFast = false;
+    private int round = 0;
+    private boolean roundInProgress = false;
+    private int pendingValidators = 0;
+    private long roundStartNanos;
+    private Map<Validator, Validator.ValidationResult> roundResults;
+    private final Map<Validator, Criteria.EvalCompleteListener> roundListeners = new HashMap<>();
+    private Scheduler scheduler;
+    private boolean debouncedValidationPending = false;
+    private long elidedEvaluationCount = 0;
+    private boolean incremental = false;
+    private final Map<Validator, InputState> inputStates = new HashMap<>();
+    private long skippedEvaluationCount = 0;
+    private FrameBatchDispatcher frameBatchDispatcher;
+    private LifecycleBinding lifecycleBinding;
+    private final LifecycleBinding.Target lifecycleTarget = new LifecycleBinding.Target() {
+        @Override
+        public void stop() {
+            cancelValidation();
+        }
+    };
+    private final FrameBatchDispatcher.Target frameTarget = new FrameBatchDispatcher.Target() {
+        @Override
+        public void deliver(Validator.ValidationResult validationResult) {
+            notifyObservers(validationResult);
+        }
+    };
+    private final Runnable debouncedValidation = new Runnable() {
+        @Override
+        public void run() {
+            debouncedValidationPending = false;
+            validate();
+        }
+    };
+
+    /**
+     * This interface receives the combined {@link Result} after every {@link Validator} in a
+     * round has completed.
+     */
+    public interface SetCompleteListener {
+
+        /**
+         * This method is called once per round after every {@link Validator} has completed, or
+         * after the first invalid {@link Validator} if fail-fast is enabled.
+         *
+         * @param result the combined {@link Result} of the round
+         */
+        void onComplete(Result result);
+    }
+
+    /**
+     * The combined result of validating every {@link Validator} in a round.
+     */
+    public static final class Result {
+        private final Validator.ValidationResult validationResult;
+        private final Validator firstInvalid;
+        private final Map<Validator, Validator.ValidationResult> results;
+
+        Result(Validator.ValidationResult validationResult, Validator firstInvalid,
+               Map<Validator, Validator.ValidationResult> results) {
+            this.validationResult = validationResult;
+            this.firstInvalid = firstInvalid;
+            this.results = Collections.unmodifiableMap(results);
+        }
+
+        /**
+         * Returns {@link Validator.ValidationResult#Invalid} if any {@link Validator} is invalid,
+         * {@link Validator.ValidationResult#Unknown} if any validator timed out, otherwise
+         * {@link Validator.ValidationResult#Valid}.
+         *
+         * @return the combined {@link Validator.ValidationResult}
+         */
+        public Validator.ValidationResult getValidationResult() {
+            return this.validationResult;
+        }
+
+        /**
+         * Returns the first invalid {@link Validator} in the order the validators were added.
+         *
+         * @return the first invalid {@link Validator} or null if every validator is valid
+         */
+        public Validator getFirstInvalid() {
+            return this.firstInvalid;
+        }
+
+        /**
+         * Returns the result of a single {@link Validator}.
+         *
+         * @param validator a {@link Validator} in the set
+         * @return the {@link Validator.ValidationResult}, or null if the validator didn't complete
+         * because fail-fast stopped the round
+         */
+        public Validator.ValidationResult getResult(Validator validator) {
+            return this.results.get(validator);
+        }
+
+        /**
+         * Returns the result of every {@link Validator} that completed in the round.
+         *
+         * @return the results keyed by {@link Validator}
+         */
+        public Map<Validator, Validator.ValidationResult> getResults() {
+            return this.results;
+        }
+    }
 
     /**
      * Class constructor.
      */
     public ValidatorSet() {
-        this.validators = new HashSet<>();
+        this.validators = new LinkedHashSet<>();
     }
 
     /**
@@ -35,7 +158,7 @@ public class ValidatorSet implements Validation {
      * @param validators one or more {@link Validator} objects
      */
     public ValidatorSet(Validator ...validators) {
-        this.validators = new HashSet<>(Arrays.asList(validators));
+        this.validators = new LinkedHashSet<>(Arrays.asList(validators));
     }
 
     /**
@@ -46,6 +169,10 @@ public class ValidatorSet implements Validation {
      * @return true if the {@link Validator} was added, otherwise false
      */
     public boolean add(Validator validator) {
+        if (this.frameBatchDispatcher != null) {
+            validator.dispatchOnFrame(this.frameBatchDispatcher);
+        }
+
         return this.validators.add(validator);
     }
 
@@ -59,6 +186,12 @@ public class ValidatorSet implements Validation {
      * @return true if all the {@link Validator} was added, otherwise false
      */
     public boolean add(Validator ...validators) {
+        if (this.frameBatchDispatcher != null) {
+            for (Validator validator : validators) {
+                validator.dispatchOnFrame(this.frameBatchDispatcher);
+            }
+        }
+
         return this.validators.addAll(Arrays.asList(validators));
     }
 
@@ -70,9 +203,149 @@ public class ValidatorSet implements Validation {
      * @return true if the {@link Validator} was found and removed, otherwise false
      */
     public boolean remove(Validator validator) {
+        this.inputStates.remove(validator);
         return this.validators.remove(validator);
     }
 
+    /**
+     * Add an {@link Observer} that is notified once per round with the combined result.
+     * <p>
+     * Multiple observers can be supplied as a comma-delimited list.
+     *
+     * @param observers one or more {@link Observer} objects
+     */
+    public void observe(Observer... observers) {
+        Collections.addAll(this.observers, observers);
+    }
+
+    /**
+     * Sets the {@link SetCompleteListener} that receives the combined {@link Result} of each
+     * round.
+     *
+     * @param setCompleteListener a {@link SetCompleteListener}, or null to remove it
+     */
+    public void setCompleteListener(SetCompleteListener setCompleteListener) {
+        this.setCompleteListener = setCompleteListener;
+    }
+
+    /**
+     * Enables or disables fail-fast rounds.
+     * <p>
+     * When enabled, the round completes as soon as any {@link Validator} is invalid. Validators
+     * that haven't started are skipped, and validators still waiting on an
+     * {@link Criteria.AsyncCondition} are stopped without notifying their observers.
+     *
+     * @param failFast true to complete the round at the first invalid {@link Validator}
+     */
+    public void failFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    /**
+     * Enables or disables incremental rounds.
+     * <p>
+     * When enabled, each {@link Validator} is fingerprinted at the start of a round (see
+     * {@link Validator#fingerprint(Criteria.KeyExtractor)}). A validator whose fingerprint
+     * equals the one its last Valid or Invalid result was computed from isn't evaluated again;
+     * that result is reused for the round and its observers aren't notified, since they already
+     * show it. The observers of the set are still notified with the combined result. Skipped
+     * evaluations are counted by {@link #getSkippedEvaluationCount()}.
+     * <p>
+     * A validator that can't be fingerprinted, or whose last result was
+     * {@link Validator.ValidationResult#Unknown}, is evaluated in every round. Call
+     * {@link #invalidate(Validator)} when a validator depends on something its fingerprint
+     * doesn't capture, for example another view.
+     *
+     * @param incremental true to only evaluate validators whose input changed
+     */
+    public void incremental(boolean incremental) {
+        this.incremental = incremental;
+        this.inputStates.clear();
+    }
+
+    /**
+     * Forgets the last result of a {@link Validator}, so the next incremental round evaluates it
+     * even if its fingerprint is unchanged.
+     *
+     * @param validator a {@link Validator} in the set
+     *
+     * @see #incremental(boolean)
+     */
+    public void invalidate(Validator validator) {
+        this.inputStates.remove(validator);
+    }
+
+    /**
+     * Returns the number of {@link Validator} evaluations skipped by incremental rounds because
+     * their input was unchanged.
+     *
+     * @return the number of skipped evaluations
+     *
+     * @see #incremental(boolean)
+     */
+    public long getSkippedEvaluationCount() {
+        return this.skippedEvaluationCount;
+    }
+
+    /**
+     * Delivers the observer updates of this set and of every {@link Validator} in it via a
+     * {@link FrameBatchDispatcher}, so a round updates the UI in a single frame.
+     * <p>
+     * Validators added later also use the dispatcher. The {@link SetCompleteListener} is still
+     * called as soon as the round completes.
+     *
+     * @param frameBatchDispatcher a {@link FrameBatchDispatcher}, or null to notify observers
+     *                             immediately
+     *
+     * @see Validator#dispatchOnFrame(FrameBatchDispatcher)
+     */
+    public void dispatchOnFrame(FrameBatchDispatcher frameBatchDispatcher) {
+        if (this.frameBatchDispatcher != null) {
+            this.frameBatchDispatcher.cancel(this.frameTarget);
+        }
+
+        this.frameBatchDispatcher = frameBatchDispatcher;
+
+        for (Validator validator : this.validators) {
+            validator.dispatchOnFrame(frameBatchDispatcher);
+        }
+    }
+
+    /**
+     * Stops the validation work of this set with the {@link android.arch.lifecycle.Lifecycle}
+     * of a screen.
+     * <p>
+     * When the owner is stopped, the round in progress is abandoned and every {@link Validator}
+     * in the set is cancelled as if {@link #cancelValidation()} was called. Once the owner is
+     * destroyed, rounds are no longer started. Validators that are also validated on their own
+     * should be bound via {@link Validator#bindTo(LifecycleOwner)} as well.
+     * <p>
+     * This method must be called on the main UI thread.
+     *
+     * @param owner the {@link LifecycleOwner}, usually an {@link android.app.Activity} or a
+     *              fragment, or null to unbind
+     */
+    public void bindTo(LifecycleOwner owner) {
+        if (this.lifecycleBinding != null) {
+            this.lifecycleBinding.unbind();
+            this.lifecycleBinding = null;
+        }
+
+        if (owner != null) {
+            this.lifecycleBinding = new LifecycleBinding(owner, this.lifecycleTarget);
+        }
+    }
+
+    /**
+     * Returns whether the {@link LifecycleOwner} supplied to {@link #bindTo(LifecycleOwner)}
+     * has been destroyed.
+     *
+     * @return true if rounds must not be started, otherwise false
+     */
+    private boolean isDestroyed() {
+        return this.lifecycleBinding != null && this.lifecycleBinding.isDestroyed();
+    }
+
     /**
      * Returns a collection of {@link Validator} objects associated with this instance.
      * <p>
@@ -87,17 +360,327 @@ public class ValidatorSet implements Validation {
     /**
      * Requests each {@link Validator} associated with this instance to validate istelf
      * by calling the {@link Validator#validate()} method.
+     * <p>
+     * A round that is still in progress is abandoned and its result is never delivered, and a
+     * request made via {@link #validateDebounced(long, TimeUnit)} that is still pending is
+     * replaced by this round. In incremental mode, validators whose input is unchanged are
+     * skipped.
      */
     @Override
     public void validate() {
-        for (Validator validator : validators) {
-            validator.validate();
+        if (isDestroyed()) {
+            return;
+        }
+
+        if (cancelDebouncedValidation()) {
+            this.elidedEvaluationCount++;
+        }
+
+        detachRoundListeners();
+
+        final int round = ++this.round;
+        this.roundInProgress = true;
+        this.roundStartNanos = System.nanoTime();
+        this.pendingValidators = this.validators.size();
+        this.roundResults = new LinkedHashMap<>();
+
+        if (this.pendingValidators == 0) {
+            completeRound();
+            return;
+        }
+
+        for (final Validator validator : new ArrayList<>(this.validators)) {
+            if (round != this.round || !this.roundInProgress) {
+                // The round was completed early by fail-fast.
+                break;
+            }
+
+            if (this.incremental && reuseResult(round, validator)) {
+                continue;
+            }
+
+            Criteria.EvalCompleteListener roundListener = new Criteria.EvalCompleteListener() {
+                @Override
+                public void onComplete(Validator.ValidationResult validationResult) {
+                    validatorComplete(round, validator, validationResult);
+                }
+            };
+            this.roundListeners.put(validator, roundListener);
+            validator.validate(roundListener);
         }
     }
 
+    /**
+     * Removes the listeners of the previous round from its validators, so a validator that
+     * never completes doesn't collect a listener per round.
+     */
+    private void detachRoundListeners() {
+        for (Map.Entry<Validator, Criteria.EvalCompleteListener> entry : this.roundListeners.entrySet()) {
+            entry.getKey().removeEvalCompleteListener(entry.getValue());
+        }
+
+        this.roundListeners.clear();
+    }
+
+    /**
+     * Starts a round via {@link #validate()} once no further request has been made for the
+     * supplied delay.
+     * <p>
+     * Each request replaces the previous pending request and abandons a round that is still
+     * waiting on an {@link Criteria.AsyncCondition}, so a burst of requests results in a single
+     * round. Requests that were replaced are counted by {@link #getElidedEvaluationCount()}.
+     * <p>
+     * This method must be called on the main UI thread.
+     *
+     * @param delay the quiet period that must pass before the round starts
+     * @param unit the {@link TimeUnit} of the delay
+     *
+     * @see Validator#validateDebounced(long, TimeUnit)
+     */
+    public void validateDebounced(long delay, TimeUnit unit) {
+        if (isDestroyed()) {
+            return;
+        }
+
+        Scheduler scheduler = getScheduler();
+
+        if (this.debouncedValidationPending) {
+            scheduler.cancel(this.debouncedValidation);
+            this.elidedEvaluationCount++;
+        } else if (this.roundInProgress) {
+            this.round++;
+            this.roundInProgress = false;
+            for (Validator validator : this.validators) {
+                validator.supersede();
+            }
+            this.elidedEvaluationCount++;
+        }
+
+        this.debouncedValidationPending = true;
+        scheduler.postDelayed(this.debouncedValidation, unit.toMillis(delay));
+    }
+
+    /**
+     * Returns the number of rounds that were requested via
+     * {@link #validateDebounced(long, TimeUnit)} but never delivered because a newer request
+     * replaced them.
+     *
+     * @return the number of elided rounds
+     */
+    public long getElidedEvaluationCount() {
+        return this.elidedEvaluationCount;
+    }
+
+    /**
+     * Removes the round requested via {@link #validateDebounced(long, TimeUnit)}, if any.
+     *
+     * @return true if a request was pending, otherwise false
+     */
+    private boolean cancelDebouncedValidation() {
+        if (!this.debouncedValidationPending) {
+            return false;
+        }
+
+        getScheduler().cancel(this.debouncedValidation);
+        this.debouncedValidationPending = false;
+        return true;
+    }
+
+    /**
+     * Sets the {@link Scheduler} used by {@link #validateDebounced(long, TimeUnit)}.
+     * <p>
+     * For testing.
+     *
+     * @param scheduler a {@link Scheduler}
+     */
+    void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the {@link Scheduler} used by {@link #validateDebounced(long, TimeUnit)}.
+     *
+     * @return the {@link Scheduler} supplied to {@link #setScheduler(Scheduler)} or the
+     * {@link MainThreadScheduler}
+     */
+    private Scheduler getScheduler() {
+        if (this.scheduler == null) {
+            this.scheduler = MainThreadScheduler.getInstance();
+        }
+
+        return this.scheduler;
+    }
+
     public void cancelValidation() {
+        cancelDebouncedValidation();
+
+        if (this.frameBatchDispatcher != null) {
+            this.frameBatchDispatcher.cancel(this.frameTarget);
+        }
+
+        this.round++;
+        this.roundInProgress = false;
+
+        // The views are about to be reset, so every validator must be evaluated again.
+        this.inputStates.clear();
+
         for (Validator validator : validators) {
             validator.cancelValidation();
         }
     }
+
+    /**
+     * Completes a {@link Validator} with its last result if its input is unchanged.
+     *
+     * @param round the round being started
+     * @param validator the {@link Validator} about to be evaluated
+     * @return true if the last result was reused, false if the validator must be evaluated
+     */
+    private boolean reuseResult(int round, Validator validator) {
+        InputState inputState = this.inputStates.get(validator);
+        if (inputState == null) {
+            inputState = new InputState();
+            this.inputStates.put(validator, inputState);
+        }
+
+        Object fingerprint = validator.getFingerprint();
+        inputState.roundFingerprint = fingerprint;
+
+        if (fingerprint == null || inputState.validationResult == null || !fingerprint.equals(inputState.fingerprint)) {
+            // The caller starts the next evaluation, which is the only one taken from this fingerprint.
+            inputState.roundEvaluation = validator.getEvaluationCount() + 1;
+            return false;
+        }
+
+        inputState.roundEvaluation = validator.getEvaluationCount();
+        this.skippedEvaluationCount++;
+        validatorComplete(round, validator, inputState.validationResult);
+        return true;
+    }
+
+    /**
+     * Records the result of a single {@link Validator} and completes the round once every
+     * validator has completed.
+     *
+     * @param round the round the result belongs to
+     * @param validator the {@link Validator} that completed
+     * @param validationResult the result of the {@link Validator}
+     */
+    private void validatorComplete(int round, Validator validator, Validator.ValidationResult validationResult) {
+        if (round != this.round || !this.roundInProgress) {
+            return;
+        }
+
+        this.roundResults.put(validator, validationResult);
+        this.pendingValidators--;
+
+        // A result of a later evaluation, for example one started by validating the validator on
+        // its own, may have been computed from other input, so it isn't kept.
+        InputState inputState = this.incremental ? this.inputStates.get(validator) : null;
+        if (inputState != null && validator.getEvaluationCount() == inputState.roundEvaluation) {
+            // An Unknown result is never reused, so the validator is retried in the next round.
+            boolean settled = validationResult == Validator.ValidationResult.Valid
+                    || validationResult == Validator.ValidationResult.Invalid;
+            inputState.fingerprint = inputState.roundFingerprint;
+            inputState.validationResult = settled ? validationResult : null;
+        }
+
+        if (validationResult == Validator.ValidationResult.Invalid && this.failFast) {
+            // Stop the validators that are still running since the combined result can't change.
+            for (Validator pending : this.validators) {
+                if (!this.roundResults.containsKey(pending)) {
+                    pending.supersede();
+                }
+            }
+
+            completeRound();
+        } else if (this.pendingValidators == 0) {
+            completeRound();
+        }
+    }
+
+    /**
+     * Builds the combined {@link Result} of the round and notifies the observers and the
+     * {@link SetCompleteListener}.
+     */
+    private void completeRound() {
+        this.roundInProgress = false;
+
+        Validator firstInvalid = null;
+        Validator.ValidationResult combinedResult = Validator.ValidationResult.Valid;
+        for (Validator validator : this.validators) {
+            Validator.ValidationResult validationResult = this.roundResults.get(validator);
+
+            if (validationResult == Validator.ValidationResult.Invalid) {
+                firstInvalid = validator;
+                combinedResult = Validator.ValidationResult.Invalid;
+                break;
+            }
+
+            if (validationResult == Validator.ValidationResult.Unknown) {
+                combinedResult = Validator.ValidationResult.Unknown;
+            }
+        }
+
+        Result result = new Result(combinedResult, firstInvalid, this.roundResults);
+
+        ValidationMetrics metrics = ValidationMetrics.getDefault();
+        if (metrics.isEnabled()) {
+            metrics.onRoundComplete(this, combinedResult, System.nanoTime() - this.roundStartNanos);
+        }
+
+        if (this.frameBatchDispatcher != null) {
+            this.frameBatchDispatcher.dispatch(this.frameTarget, result.getValidationResult());
+        } else {
+            notifyObservers(result.getValidationResult());
+        }
+
+        if (this.setCompleteListener != null) {
+            this.setCompleteListener.onComplete(result);
+        }
+    }
+
+    /**
+     * Notifies the observers of this set with the combined result of a round.
+     *
+     * @param validationResult the combined result of the round
+     */
+    private void notifyObservers(Validator.ValidationResult validationResult) {
+        ValidationMetrics metrics = ValidationMetrics.getDefault();
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+
+        ValidationTracer tracer = ValidationTracer.getDefault();
+        tracer.beginSection(ValidationTracer.NOTIFY_SECTION);
+        try {
+            for (Observer observer : this.observers) {
+                tracer.beginSection(observer.getSectionName());
+                try {
+                    observer.update(validationResult);
+                } finally {
+                    tracer.endSection();
+                }
+            }
+        } finally {
+            tracer.endSection();
+        }
+
+        if (metrics.isEnabled()) {
+            metrics.onObserversNotified(this, this.observers.size(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * The fingerprints of a {@link Validator} in incremental mode, updated in place.
+     */
+    private static class InputState {
+        // The fingerprint taken at the start of the current round.
+        Object roundFingerprint;
+
+        // The evaluation of the validator that the round fingerprint belongs to.
+        int roundEvaluation;
+
+        // The fingerprint the last result was computed from.
+        Object fingerprint;
+        Validator.ValidationResult validationResult;
+    }
 }
@@ -0,0 +1,160 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds whether a text contains any word of a list using the Aho-Corasick algorithm.
+ * <p>
+ * The words are compiled once into an automaton, so matching takes time proportional to the
+ * length of the text regardless of how many words there are. Matching is case-insensitive and
+ * doesn't allocate.
+ * <p>
+ * The transitions of each state are stored in sorted arrays and looked up with a binary search.
+ */
+final class WordMatcher {
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    private final boolean[] terminal;
+
+    /**
+     * Class constructor that compiles the words into an automaton.
+     *
+     * @param words the words to be matched, empty words are ignored
+     */
+    WordMatcher(Collection<String> words) {
+        List<Map<Character, Integer>> transitions = new ArrayList<>();
+        List<Boolean> terminalStates = new ArrayList<>();
+        transitions.add(new HashMap<Character, Integer>());
+        terminalStates.add(false);
+
+        // Build the trie.
+        for (String word : words) {
+            if (word == null || word.isEmpty()) {
+                continue;
+            }
+
+            int state = 0;
+            for (int i = 0; i < word.length(); i++) {
+                char c = Character.toLowerCase(word.charAt(i));
+                Integer next = transitions.get(state).get(c);
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.get(state).put(c, next);
+                    transitions.add(new HashMap<Character, Integer>());
+                    terminalStates.add(false);
+                }
+                state = next;
+            }
+            terminalStates.set(state, true);
+        }
+
+        int stateCount = transitions.size();
+        this.edgeChars = new char[stateCount][];
+        this.edgeTargets = new int[stateCount][];
+        this.failure = new int[stateCount];
+        this.terminal = new boolean[stateCount];
+
+        for (int state = 0; state < stateCount; state++) {
+            Map<Character, Integer> edges = transitions.get(state);
+            char[] chars = new char[edges.size()];
+            int i = 0;
+            for (Character c : edges.keySet()) {
+                chars[i++] = c;
+            }
+            Arrays.sort(chars);
+
+            int[] targets = new int[chars.length];
+            for (i = 0; i < chars.length; i++) {
+                targets[i] = edges.get(chars[i]);
+            }
+
+            this.edgeChars[state] = chars;
+            this.edgeTargets[state] = targets;
+            this.terminal[state] = terminalStates.get(state);
+        }
+
+        // Compute the failure links breadth first, so a state's failure is known before its children.
+        int[] queue = new int[stateCount];
+        int head = 0;
+        int tail = 0;
+        for (int target : this.edgeTargets[0]) {
+            this.failure[target] = 0;
+            queue[tail++] = target;
+        }
+
+        while (head < tail) {
+            int state = queue[head++];
+            char[] chars = this.edgeChars[state];
+            int[] targets = this.edgeTargets[state];
+
+            for (int i = 0; i < chars.length; i++) {
+                int child = targets[i];
+                int fallback = this.failure[state];
+                int next;
+                while ((next = transition(fallback, chars[i])) < 0 && fallback != 0) {
+                    fallback = this.failure[fallback];
+                }
+
+                this.failure[child] = next < 0 ? 0 : next;
+                // A state also matches every word that ends at its failure state.
+                this.terminal[child] |= this.terminal[this.failure[child]];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the text contains any of the words.
+     *
+     * @param text the text to be searched
+     * @return true if at least one word occurs in the text, otherwise false
+     */
+    boolean containsAny(CharSequence text) {
+        int state = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = this.failure[state];
+            }
+
+            state = next < 0 ? 0 : next;
+            if (this.terminal[state]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the number of states in the automaton.
+     * <p>
+     * For testing.
+     *
+     * @return the number of states
+     */
+    int getStateCount() {
+        return this.failure.length;
+    }
+
+    /**
+     * Follows the edge of a state for a character.
+     *
+     * @param state the current state
+     * @param c the next character
+     * @return the next state, or -1 if the state has no edge for the character
+     */
+    private int transition(int state, char c) {
+        int index = Arrays.binarySearch(this.edgeChars[state], c);
+
+        return index < 0 ? -1 : this.edgeTargets[state][index];
+    }
+}
@@ -0,0 +1,226 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.EditText;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class AsyncConditionExecutorTest {
+    private final EditText editText = mock(EditText.class);
+    private CountDownLatch blockWorker;
+    private CountDownLatch workerStarted;
+
+    @Before
+    public void setUp() throws Exception {
+        blockWorker = new CountDownLatch(1);
+        workerStarted = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        blockWorker.countDown();
+    }
+
+    @Test
+    public void execute_QueueFull_AbortRejectsNewTask() throws Exception {
+        AsyncConditionExecutor executor = new AsyncConditionExecutor(1, 1, AsyncConditionExecutor.RejectionPolicy.Abort);
+        executor.execute(blockingTask());
+        workerStarted.await(1, TimeUnit.SECONDS);
+
+        RecordingTask queued = new RecordingTask();
+        RecordingTask rejected = new RecordingTask();
+        executor.execute(queued);
+        executor.execute(rejected);
+
+        assertFalse(queued.rejected);
+        assertTrue(rejected.rejected);
+        assertEquals(1, executor.getQueueDepth());
+        assertEquals(1, executor.getRejectedCount());
+        assertEquals(3, executor.getSubmittedCount());
+    }
+
+    @Test
+    public void execute_QueueFull_DiscardOldestRejectsQueuedTask() throws Exception {
+        AsyncConditionExecutor executor = new AsyncConditionExecutor(1, 1, AsyncConditionExecutor.RejectionPolicy.DiscardOldest);
+        executor.execute(blockingTask());
+        workerStarted.await(1, TimeUnit.SECONDS);
+
+        RecordingTask oldest = new RecordingTask();
+        RecordingTask newest = new RecordingTask();
+        executor.execute(oldest);
+        executor.execute(newest);
+
+        assertTrue(oldest.rejected);
+        assertFalse(newest.rejected);
+        assertSame(newest, executor.getQueue().peek());
+    }
+
+    @Test
+    public void execute_QueueFull_DiscardedEvaluationCompletesAsUnknown() throws Exception {
+        AsyncConditionExecutor executor = new AsyncConditionExecutor(1, 1, AsyncConditionExecutor.RejectionPolicy.DiscardOldest);
+        executor.execute(blockingTask());
+        workerStarted.await(1, TimeUnit.SECONDS);
+
+        FakeScheduler scheduler = new FakeScheduler();
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+        Criteria.EvalCompleteListener listener = new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        };
+        Criteria<EditText> oldest = idleCriteria(executor, scheduler);
+        Criteria<EditText> newest = idleCriteria(executor, scheduler);
+        oldest.evaluate(listener);
+        newest.evaluate(listener);
+        scheduler.advanceBy(0);
+
+        assertEquals(Collections.singletonList(Validator.ValidationResult.Unknown), results);
+        assertTrue(newest.isEvaluating());
+        executor.shutdown();
+    }
+
+    @Test
+    public void execute_QueueFull_CallerRunsNewTask() throws Exception {
+        AsyncConditionExecutor executor = new AsyncConditionExecutor(1, 1, AsyncConditionExecutor.RejectionPolicy.CallerRuns);
+        executor.execute(blockingTask());
+        workerStarted.await(1, TimeUnit.SECONDS);
+
+        executor.execute(new RecordingTask());
+        RecordingTask callerRuns = new RecordingTask();
+        executor.execute(callerRuns);
+
+        assertEquals(Thread.currentThread(), callerRuns.ranOn);
+        assertEquals(0, executor.getRejectedCount());
+    }
+
+    @Test
+    public void remove_QueuedTaskRemoved_QueueEmpty() throws Exception {
+        AsyncConditionExecutor executor = new AsyncConditionExecutor(1, 4, AsyncConditionExecutor.RejectionPolicy.Abort);
+        executor.execute(blockingTask());
+        workerStarted.await(1, TimeUnit.SECONDS);
+
+        RecordingTask queued = new RecordingTask();
+        executor.execute(queued);
+        queued.cancel(true);
+        executor.remove(queued);
+
+        assertEquals(0, executor.getQueueDepth());
+    }
+
+    @Test
+    public void getMaxWaitTime_QueuedTaskWaited_WaitRecorded() throws Exception {
+        AsyncConditionExecutor executor = new AsyncConditionExecutor(1, 4, AsyncConditionExecutor.RejectionPolicy.Abort);
+        executor.execute(blockingTask());
+        workerStarted.await(1, TimeUnit.SECONDS);
+
+        RecordingTask queued = new RecordingTask();
+        executor.execute(queued);
+        Thread.sleep(50);
+        blockWorker.countDown();
+        queued.get(1, TimeUnit.SECONDS);
+
+        assertTrue(executor.getMaxWaitTime(TimeUnit.MILLISECONDS) >= 50);
+        assertTrue(executor.getAverageWaitTime(TimeUnit.MILLISECONDS) > 0);
+    }
+
+    @Test
+    public void cancel_RunningTask_TokenCancelledAndWorkCountedAsWasted() throws Exception {
+        AsyncConditionExecutor executor = new AsyncConditionExecutor(1, 4, AsyncConditionExecutor.RejectionPolicy.Abort);
+        AsyncConditionExecutor.Task running = blockingTask();
+        executor.execute(running);
+        workerStarted.await(1, TimeUnit.SECONDS);
+
+        running.cancel(false);
+        blockWorker.countDown();
+
+        RecordingTask useful = new RecordingTask();
+        executor.execute(useful);
+        useful.get(1, TimeUnit.SECONDS);
+        assertTrue(running.cancellationToken.isCancellationRequested());
+        assertFalse(useful.cancellationToken.isCancellationRequested());
+        awaitFinished(executor, 2);
+        assertEquals(1, executor.getWastedCount());
+        assertEquals(1, executor.getUsefulCount());
+    }
+
+    private void awaitFinished(AsyncConditionExecutor executor, long count) throws InterruptedException {
+        // afterExecute runs after the future completes, so wait for the counters to catch up.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (executor.getWastedCount() + executor.getUsefulCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private Criteria<EditText> idleCriteria(AsyncConditionExecutor executor, Scheduler scheduler) {
+        Criteria<EditText> criteria = new Criteria<>(editText)
+                .asyncTest(new Criteria.AsyncCondition<EditText>() {
+                    @Override
+                    protected void evaluate(EditText view) {
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+                    }
+                })
+                .executeOn(executor);
+        criteria.setScheduler(scheduler);
+
+        return criteria;
+    }
+
+    private AsyncConditionExecutor.Task blockingTask() {
+        return new AsyncConditionExecutor.Task(new Runnable() {
+            @Override
+            public void run() {
+                workerStarted.countDown();
+                try {
+                    blockWorker.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }) {
+            @Override
+            void onRejected() {
+            }
+        };
+    }
+
+    private static class RecordingTask extends AsyncConditionExecutor.Task {
+        volatile boolean rejected;
+        volatile Thread ranOn;
+
+        RecordingTask() {
+            super(new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+        }
+
+        @Override
+        public void run() {
+            ranOn = Thread.currentThread();
+            super.run();
+        }
+
+        @Override
+        void onRejected() {
+            rejected = true;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CancellationTokenTest {
+    private int cancelledCount = 0;
+
+    private final CancellationToken.Listener listener = new CancellationToken.Listener() {
+        @Override
+        public void onCancelled() {
+            cancelledCount++;
+        }
+    };
+
+    @Test
+    public void cancel_ListenerRegistered_ListenerCalledOnce() {
+        CancellationToken token = new CancellationToken();
+        token.addListener(listener);
+
+        token.cancel();
+        token.cancel();
+
+        assertTrue(token.isCancellationRequested());
+        assertEquals(1, cancelledCount);
+    }
+
+    @Test
+    public void addListener_AlreadyCancelled_ListenerCalledImmediately() {
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        token.addListener(listener);
+
+        assertEquals(1, cancelledCount);
+    }
+
+    @Test
+    public void cancel_ListenerRemoved_ListenerNotCalled() {
+        CancellationToken token = new CancellationToken();
+        token.addListener(listener);
+        token.removeListener(listener);
+
+        token.cancel();
+
+        assertEquals(0, cancelledCount);
+    }
+
+    @Test(expected = CancellationException.class)
+    public void throwIfCancellationRequested_Cancelled_Throws() {
+        CancellationToken token = new CancellationToken();
+        assertFalse(token.isCancellationRequested());
+        token.throwIfCancellationRequested();
+
+        token.cancel();
+        token.throwIfCancellationRequested();
+    }
+}
@@ -0,0 +1,117 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.EditText;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ConditionFutureTest {
+    @Mock
+    private EditText mockEditText;
+
+    private AsyncConditionExecutor executor;
+    private final List<Boolean> results = new ArrayList<>();
+    private final List<ConditionFuture> futures = new ArrayList<>();
+    private volatile Thread evaluateThread;
+
+    private final ConditionFuture.Listener listener = new ConditionFuture.Listener() {
+        @Override
+        public void onComplete(boolean result) {
+            results.add(result);
+        }
+    };
+
+    private final Criteria.FutureCondition<EditText> condition = new Criteria.FutureCondition<EditText>() {
+        @Override
+        protected ConditionFuture evaluateFuture(EditText view) {
+            ConditionFuture future = new ConditionFuture();
+            evaluateThread = Thread.currentThread();
+            futures.add(future);
+            return future;
+        }
+
+        @Override
+        protected void onCancelled() {
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        executor = new AsyncConditionExecutor(1, 4, AsyncConditionExecutor.RejectionPolicy.Abort);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+    }
+
+    @Test
+    public void complete_ListenerRegistered_ListenerCalledOnce() {
+        ConditionFuture future = new ConditionFuture();
+        future.addListener(listener);
+
+        assertTrue(future.complete(true));
+        assertFalse(future.complete(false));
+
+        assertTrue(future.isDone());
+        assertEquals(1, results.size());
+        assertTrue(results.get(0));
+    }
+
+    @Test
+    public void addListener_AlreadyCompleted_ListenerCalledImmediately() {
+        ConditionFuture future = ConditionFuture.completed(false);
+
+        future.addListener(listener);
+
+        assertEquals(1, results.size());
+        assertFalse(results.get(0));
+    }
+
+    @Test
+    public void complete_Cancelled_ListenerNotCalled() {
+        ConditionFuture future = new ConditionFuture();
+        future.addListener(listener);
+
+        assertTrue(future.cancel());
+        assertFalse(future.complete(true));
+
+        assertTrue(future.isCancelled());
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void initEvaluate_FutureCondition_EvaluatedOnCallingThread() {
+        Criteria<EditText> criteria = new Criteria<>(mockEditText).executeOn(executor);
+
+        condition.initEvaluate(criteria, mockEditText, 1);
+
+        assertEquals(1, futures.size());
+        assertSame(Thread.currentThread(), evaluateThread);
+        assertEquals(0, executor.getSubmittedCount());
+    }
+
+    @Test
+    public void initEvaluate_EvaluationSuperseded_PendingFutureCancelled() {
+        Criteria<EditText> criteria = new Criteria<>(mockEditText).executeOn(executor);
+
+        condition.initEvaluate(criteria, mockEditText, 1);
+        condition.initEvaluate(criteria, mockEditText, 2);
+
+        assertEquals(2, futures.size());
+        assertTrue(futures.get(0).isCancelled());
+        assertFalse(futures.get(1).isDone());
+    }
+}
@@ -0,0 +1,112 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.TextView;
+
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ConditionsTest {
+    @Test
+    public void matches_EntireTextMustMatch() {
+        Criteria.Condition<TextView> condition = Conditions.matches("[a-z]+");
+
+        assertTrue(test(condition, "apple"));
+        assertFalse(test(condition, "apple1"));
+        assertTrue(test(condition, "kiwi"));
+    }
+
+    @Test
+    public void containsMatch_PartOfTextMatches() {
+        Criteria.Condition<TextView> condition = Conditions.containsMatch(Pattern.compile("[0-9]"));
+
+        assertTrue(test(condition, "apple1"));
+        assertFalse(test(condition, "apple"));
+    }
+
+    @Test
+    public void lengthBetween_InclusiveRange() {
+        Criteria.Condition<TextView> condition = Conditions.lengthBetween(2, 4);
+
+        assertFalse(test(condition, "a"));
+        assertTrue(test(condition, "ab"));
+        assertTrue(test(condition, "abcd"));
+        assertFalse(test(condition, "abcde"));
+    }
+
+    @Test
+    public void onlyCharacters_LettersAndDigits() {
+        Criteria.Condition<TextView> condition = Conditions.onlyCharacters(Conditions.LETTERS_AND_DIGITS);
+
+        assertTrue(test(condition, "Banana42"));
+        assertTrue(test(condition, ""));
+        assertFalse(test(condition, "banana!"));
+        assertFalse(test(condition, "ba\u00f1ana"));
+    }
+
+    @Test
+    public void containsAnyWord_AllowList() {
+        Criteria.Condition<TextView> condition = Conditions.containsAnyWord("apple", "kiwi");
+
+        assertTrue(test(condition, "BigKiwi"));
+        assertFalse(test(condition, "banana"));
+    }
+
+    @Test
+    public void containsNoWord_DenyList() {
+        Criteria.Condition<TextView> condition = Conditions.containsNoWord("darn", "heck");
+
+        assertTrue(test(condition, "hello"));
+        assertFalse(test(condition, "OhHeck"));
+    }
+
+    @Test
+    public void email_ValidAndInvalidAddresses() {
+        Criteria.Condition<TextView> condition = Conditions.email();
+
+        assertTrue(test(condition, "someone@example.com"));
+        assertFalse(test(condition, "someone@example"));
+        assertFalse(test(condition, "someone.example.com"));
+    }
+
+    @Test
+    public void numberBetween_ParsesAndChecksRange() {
+        Criteria.Condition<TextView> condition = Conditions.numberBetween(1, 10);
+
+        assertTrue(test(condition, " 5 "));
+        assertTrue(test(condition, "10"));
+        assertFalse(test(condition, "10.5"));
+        assertFalse(test(condition, "five"));
+    }
+
+    @Test
+    public void numberBetween_NotPlainDecimal_Invalid() {
+        Criteria.Condition<TextView> condition =
+                Conditions.numberBetween(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+        assertTrue(test(condition, "-1.5e3"));
+        assertTrue(test(condition, ".5"));
+        assertFalse(test(condition, "5f"));
+        assertFalse(test(condition, "1d"));
+        assertFalse(test(condition, "0x1p3"));
+        assertFalse(test(condition, "Infinity"));
+        assertFalse(test(condition, "NaN"));
+    }
+
+    @Test
+    public void evaluate_TextView_TestsText() {
+        TextView mockTextView = mock(TextView.class);
+        when(mockTextView.getText()).thenReturn("kiwi");
+
+        assertTrue(Conditions.containsAnyWord("kiwi").evaluate(mockTextView));
+    }
+
+    private boolean test(Criteria.Condition<TextView> condition, String text) {
+        return ((Conditions.TextCondition) condition).test(text);
+    }
+}
@@ -0,0 +1,136 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.EditText;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CriteriaTemplateTest {
+    @Mock
+    private EditText mockEditText1;
+
+    @Mock
+    private EditText mockEditText2;
+
+    private final List<EditText> evaluatedViews = new ArrayList<>();
+    private final List<Validator.ValidationResult> results = new ArrayList<>();
+
+    private final Criteria.Condition<EditText> recordingCondition = new Criteria.Condition<EditText>() {
+        @Override
+        public boolean evaluate(EditText view) {
+            evaluatedViews.add(view);
+            return view == mockEditText1;
+        }
+    };
+
+    private final Criteria.EvalCompleteListener recordingListener = new Criteria.EvalCompleteListener() {
+        @Override
+        public void onComplete(Validator.ValidationResult validationResult) {
+            results.add(validationResult);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void bind_TwoViews_ConditionsEvaluatedAgainstEachView() {
+        CriteriaTemplate<EditText> template = new CriteriaTemplate<EditText>().test(recordingCondition);
+
+        template.bind(mockEditText1).evaluate(recordingListener);
+        template.bind(mockEditText2).evaluate(recordingListener);
+
+        assertEquals(2, evaluatedViews.size());
+        assertSame(mockEditText1, evaluatedViews.get(0));
+        assertSame(mockEditText2, evaluatedViews.get(1));
+        assertEquals(Validator.ValidationResult.Valid, results.get(0));
+        assertEquals(Validator.ValidationResult.Invalid, results.get(1));
+        assertEquals(2, template.getBoundCount());
+    }
+
+    @Test
+    public void bind_FailFastTemplate_BoundCriteriaStopsAtFirstFailure() {
+        Criteria.Condition<EditText> failing = new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                return false;
+            }
+        };
+        CriteriaTemplate<EditText> template = new CriteriaTemplate<EditText>()
+                .test(recordingCondition, 2)
+                .test(failing, 1)
+                .failFast(true);
+
+        template.bind(mockEditText1).evaluate(recordingListener);
+
+        assertEquals(0, evaluatedViews.size());
+        assertEquals(Validator.ValidationResult.Invalid, results.get(0));
+    }
+
+    @Test
+    public void bind_OneBoundCriteriaMeasuresSlowCondition_OtherOrderUnchanged() {
+        Criteria.Condition<EditText> slowForFirstView = new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                if (view == mockEditText1) {
+                    sleep();
+                }
+                return true;
+            }
+        };
+        Criteria.Condition<EditText> fast = new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                return true;
+            }
+        };
+        CriteriaTemplate<EditText> template = new CriteriaTemplate<EditText>()
+                .test(slowForFirstView)
+                .test(fast)
+                .failFast(true);
+        Criteria<EditText> criteria1 = template.bind(mockEditText1);
+        Criteria<EditText> criteria2 = template.bind(mockEditText2);
+
+        criteria1.evaluate(recordingListener);
+        criteria1.evaluate(recordingListener);
+
+        assertEquals(Arrays.asList(fast, slowForFirstView), criteria1.getOrderedConditions());
+        assertEquals(Arrays.asList(slowForFirstView, fast), criteria2.getOrderedConditions());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_TemplateAlreadyBound_ThrowsIllegalStateException() {
+        CriteriaTemplate<EditText> template = new CriteriaTemplate<EditText>().test(recordingCondition);
+        template.bind(mockEditText1);
+
+        assertTrue(template.isFrozen());
+        template.test(recordingCondition);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_BoundCriteria_ThrowsIllegalStateException() {
+        CriteriaTemplate<EditText> template = new CriteriaTemplate<EditText>().test(recordingCondition);
+
+        template.bind(mockEditText1).test(recordingCondition);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -17,12 +17,23 @@ import org.powermock.api.easymock.PowerMock;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import static java.lang.Thread.sleep;
 import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.powermock.api.easymock.PowerMock.createMock;
 import static org.powermock.api.easymock.PowerMock.expectNew;
 import static org.powermock.api.easymock.PowerMock.mockStatic;
@@ -30,6 +41,7 @@ import static org.powermock.api.easymock.PowerMock.replay;
 import static org.powermock.api.easymock.PowerMock.replayAll;
 import static org.powermock.api.easymock.PowerMock.verify;
 import static org.powermock.api.mockito.PowerMockito.doAnswer;
+import static org.powermock.api.mockito.PowerMockito.doNothing;
 import static org.powermock.api.mockito.PowerMockito.doReturn;
 import static org.powermock.api.mockito.PowerMockito.spy;
 import static org.powermock.api.mockito.PowerMockito.when;
@@ -119,7 +131,8 @@ public class CriteriaTest {
     @Test
     public void test_TwoAsyncConditionsAdded_AddTwoAsyncConditions() {
         mockStatic(Looper.class);
-        expect(Looper.getMainLooper()).andReturn(mockMainLooper).times(2);
+        // Every AsyncCondition shares one result handler, created the first time a result is sent.
+        expect(Looper.getMainLooper()).andReturn(mockMainLooper).times(0, 1);
         replayAll();
 
         Criteria.AsyncCondition<EditText> asyncCondition1 = spy(new Criteria.AsyncCondition<EditText>() {
@@ -258,7 +271,8 @@ public class CriteriaTest {
     public void cancel_AsyncConditionCancelled_CancelInvoked() {
 
         mockStatic(Looper.class);
-        expect(Looper.getMainLooper()).andReturn(mockMainLooper).times(2);
+        // Every AsyncCondition shares one result handler, created the first time a result is sent.
+        expect(Looper.getMainLooper()).andReturn(mockMainLooper).times(0, 1);
         replayAll();
 
         Criteria<EditText> criteria = new Criteria<EditText>(mockEditText);
@@ -295,4 +309,261 @@ public class CriteriaTest {
 
         assertEquals(2, cancelCount);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void asyncConditionComplete_StaleGeneration_ResultDropped() {
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+        final Criteria<EditText> criteria = spy(new Criteria<EditText>(mockEditText));
+        criteria.asyncTest(mock(Criteria.AsyncCondition.class));
+        doNothing().when(criteria).evaluateAsyncConditions();
+
+        Criteria.EvalCompleteListener evalCompleteListener = new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        };
+
+        criteria.evaluate(evalCompleteListener);
+        int firstGeneration = criteria.getGeneration();
+        criteria.evaluate(evalCompleteListener);
+
+        criteria.asyncConditionComplete(firstGeneration, false);
+        assertEquals(0, results.size());
+
+        criteria.asyncConditionComplete(criteria.getGeneration(), true);
+        assertEquals(Collections.singletonList(Validator.ValidationResult.Valid), results);
+        assertEquals(1, criteria.getStaleCompletionCount());
+    }
+
+    @Test
+    public void asyncConditionComplete_ValidationCancelled_ResultDropped() {
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+        final Criteria<EditText> criteria = spy(new Criteria<EditText>(mockEditText));
+        criteria.asyncTest(mock(Criteria.AsyncCondition.class));
+        doNothing().when(criteria).evaluateAsyncConditions();
+
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        });
+        int generation = criteria.getGeneration();
+        criteria.cancelValidation();
+        criteria.asyncConditionComplete(generation, true);
+
+        assertEquals(0, results.size());
+        assertEquals(1, criteria.getStaleCompletionCount());
+    }
+
+    @Test
+    public void evaluate_FailFastSyncConditionFails_AsyncConditionsNotStarted() {
+        final List<String> evaluated = new ArrayList<>();
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+        final Criteria<EditText> criteria = spy(new Criteria<EditText>(mockEditText));
+        criteria.failFast(true)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        evaluated.add("expensive");
+                        return true;
+                    }
+                }, 10)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        evaluated.add("cheap");
+                        return false;
+                    }
+                }, 1)
+                .asyncTest(mock(Criteria.AsyncCondition.class));
+
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        });
+
+        assertEquals(Collections.singletonList("cheap"), evaluated);
+        assertEquals(Collections.singletonList(Validator.ValidationResult.Invalid), results);
+        verify(criteria, never()).evaluateAsyncConditions();
+    }
+
+    @Test
+    public void evaluate_FailFastSyncConditionsPass_AsyncConditionsStarted() {
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+        final Criteria<EditText> criteria = spy(new Criteria<EditText>(mockEditText));
+        criteria.failFast(true)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        return true;
+                    }
+                })
+                .asyncTest(mock(Criteria.AsyncCondition.class))
+                .asyncTest(mock(Criteria.AsyncCondition.class));
+        doNothing().when(criteria).evaluateAsyncConditions();
+
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        });
+        verify(criteria).evaluateAsyncConditions();
+        assertEquals(0, results.size());
+
+        // The first asynchronous failure completes the evaluation without waiting for the second.
+        criteria.asyncConditionComplete(criteria.getGeneration(), false);
+        assertEquals(Collections.singletonList(Validator.ValidationResult.Invalid), results);
+    }
+
+    @Test
+    public void evaluateConditions_DeclaredCosts_CheapestFirst() {
+        Criteria.Condition<EditText> expensive = new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                return true;
+            }
+        };
+        Criteria.Condition<EditText> cheap = new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                return true;
+            }
+        };
+        Criteria.Condition<EditText> undeclared = new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                return true;
+            }
+        };
+
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .test(undeclared)
+                .test(expensive, 100)
+                .test(cheap, 1);
+        criteria.evaluateConditions();
+
+        assertEquals(Arrays.asList(cheap, expensive, undeclared), criteria.getOrderedConditions());
+    }
+
+    @Test
+    public void evaluate_AsyncConditionResultCached_CompletesSynchronously() {
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+        Criteria.AsyncCondition<EditText> asyncCondition = mock(Criteria.AsyncCondition.class);
+        asyncCondition.memoize(new Criteria.KeyExtractor<EditText>() {
+            @Override
+            public Object extractKey(EditText view) {
+                return "iceapple";
+            }
+        }, 10, 1, TimeUnit.MINUTES);
+        asyncCondition.getResultCache().put("iceapple", false);
+
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText).asyncTest(asyncCondition);
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        });
+
+        assertEquals(Collections.singletonList(Validator.ValidationResult.Invalid), results);
+        assertEquals(1, asyncCondition.getResultCache().getHitCount());
+    }
+
+    @Test
+    public void evaluate_AsyncConditionResultCached_ViewNotKept() {
+        Criteria.AsyncCondition<EditText> asyncCondition = new Criteria.AsyncCondition<EditText>() {
+            @Override
+            protected void evaluate(EditText view) {
+            }
+
+            @Override
+            protected void onCancelled() {
+            }
+        };
+        asyncCondition.memoize(new Criteria.KeyExtractor<EditText>() {
+            @Override
+            public Object extractKey(EditText view) {
+                return "iceapple";
+            }
+        }, 10, 1, TimeUnit.MINUTES);
+        asyncCondition.getResultCache().put("iceapple", true);
+
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText).asyncTest(asyncCondition);
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+            }
+        });
+
+        assertEquals(1, asyncCondition.getResultCache().getHitCount());
+        assertNull(asyncCondition.getPendingInput());
+    }
+
+    @Test
+    public void evaluate_FutureConditionCompletes_ResultSentWithoutExecutor() {
+        final ConditionFuture future = new ConditionFuture();
+        Criteria.FutureCondition<EditText> futureCondition = spy(new Criteria.FutureCondition<EditText>() {
+            @Override
+            protected ConditionFuture evaluateFuture(EditText view) {
+                return future;
+            }
+
+            @Override
+            protected void onCancelled() {
+            }
+        });
+        doReturn(mockMessage).when(futureCondition).makeMessage();
+
+        AsyncConditionExecutor executor = new AsyncConditionExecutor(1, 1, AsyncConditionExecutor.RejectionPolicy.Abort);
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .asyncTest(futureCondition)
+                .executeOn(executor);
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+            }
+        });
+        future.complete(true);
+
+        verify(mockMessage).sendToTarget();
+        assertEquals(criteria.getGeneration(), mockMessage.arg1);
+        assertEquals(1, mockMessage.arg2);
+        assertEquals(0, executor.getSubmittedCount());
+        executor.shutdown();
+    }
+
+    @Test
+    public void evaluate_AsyncConditionThrows_FailureSent() {
+        Criteria.AsyncCondition<EditText> asyncCondition = spy(new Criteria.AsyncCondition<EditText>() {
+            @Override
+            protected void evaluate(EditText view) {
+                throw new IllegalStateException();
+            }
+
+            @Override
+            protected void onCancelled() {
+            }
+        });
+        doReturn(mockMessage).when(asyncCondition).makeMessage();
+
+        AsyncConditionExecutor executor = new AsyncConditionExecutor(1, 1, AsyncConditionExecutor.RejectionPolicy.Abort);
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .asyncTest(asyncCondition)
+                .executeOn(executor);
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+            }
+        });
+
+        verify(mockMessage, timeout(1000)).sendToTarget();
+        assertEquals(criteria.getGeneration(), mockMessage.arg1);
+        assertEquals(0, mockMessage.arg2);
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,32 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link FrameSource} that only begins a frame when the test asks it to.
+ */
+class FakeFrameSource implements FrameSource {
+    private final List<Runnable> callbacks = new ArrayList<>();
+
+    @Override
+    public void postFrameCallback(Runnable runnable) {
+        callbacks.add(runnable);
+    }
+
+    /**
+     * Runs every callback posted before the frame began.
+     */
+    void doFrame() {
+        List<Runnable> due = new ArrayList<>(callbacks);
+        callbacks.clear();
+
+        for (Runnable callback : due) {
+            callback.run();
+        }
+    }
+
+    int pendingCount() {
+        return callbacks.size();
+    }
+}
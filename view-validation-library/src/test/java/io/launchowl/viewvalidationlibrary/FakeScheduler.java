@@ -0,0 +1,65 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A {@link Scheduler} that runs posted work only when the test advances its clock.
+ */
+class FakeScheduler implements Scheduler {
+    private final List<Pending> pending = new ArrayList<>();
+    private long now = 0;
+
+    @Override
+    public void postDelayed(Runnable runnable, long delayMillis) {
+        pending.add(new Pending(runnable, now + delayMillis));
+    }
+
+    @Override
+    public void cancel(Runnable runnable) {
+        Iterator<Pending> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().runnable == runnable) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Advances the clock and runs everything that became due.
+     *
+     * @param millis the number of milliseconds to advance
+     */
+    void advanceBy(long millis) {
+        now += millis;
+
+        List<Pending> due = new ArrayList<>();
+        Iterator<Pending> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            Pending next = iterator.next();
+            if (next.runAt <= now) {
+                due.add(next);
+                iterator.remove();
+            }
+        }
+
+        for (Pending next : due) {
+            next.runnable.run();
+        }
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private static class Pending {
+        final Runnable runnable;
+        final long runAt;
+
+        Pending(Runnable runnable, long runAt) {
+            this.runnable = runnable;
+            this.runAt = runAt;
+        }
+    }
+}
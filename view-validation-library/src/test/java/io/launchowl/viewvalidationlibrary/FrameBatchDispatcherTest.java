@@ -0,0 +1,130 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.Button;
+import android.widget.EditText;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class FrameBatchDispatcherTest {
+    @Mock
+    private EditText mockEditText;
+
+    @Mock
+    private Button mockButton;
+
+    private FakeFrameSource frameSource;
+    private FrameBatchDispatcher dispatcher;
+    private List<Validator.ValidationResult> updates;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        frameSource = new FakeFrameSource();
+        dispatcher = new FrameBatchDispatcher(frameSource);
+        updates = new ArrayList<>();
+    }
+
+    @Test
+    public void dispatch_TwoValidatorsInOneFrame_DeliveredTogether() {
+        Validator first = validator(true);
+        Validator second = validator(false);
+        first.dispatchOnFrame(dispatcher);
+        second.dispatchOnFrame(dispatcher);
+
+        first.validate();
+        second.validate();
+
+        assertEquals(0, updates.size());
+        assertEquals(1, frameSource.pendingCount());
+
+        frameSource.doFrame();
+
+        assertEquals(2, updates.size());
+        assertEquals(Validator.ValidationResult.Valid, updates.get(0));
+        assertEquals(Validator.ValidationResult.Invalid, updates.get(1));
+        assertEquals(1, dispatcher.getFrameCount());
+        assertEquals(2, dispatcher.getDeliveredCount());
+    }
+
+    @Test
+    public void dispatch_SameValidatorTwiceInOneFrame_LatestDelivered() {
+        final boolean[] valid = {false};
+        Validator validator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        return valid[0];
+                    }
+                }));
+        validator.observe(recordingObserver());
+        validator.dispatchOnFrame(dispatcher);
+
+        validator.validate();
+        valid[0] = true;
+        validator.validate();
+        frameSource.doFrame();
+
+        assertEquals(1, updates.size());
+        assertEquals(Validator.ValidationResult.Valid, updates.get(0));
+        assertEquals(1, dispatcher.getCoalescedCount());
+    }
+
+    @Test
+    public void cancelValidation_ResultPending_NotDelivered() {
+        Validator validator = validator(true);
+        validator.dispatchOnFrame(dispatcher);
+
+        validator.validate();
+        validator.cancelValidation();
+        frameSource.doFrame();
+
+        assertEquals(0, updates.size());
+        assertEquals(0, dispatcher.getFrameCount());
+    }
+
+    @Test
+    public void validate_ValidatorSetRound_OneFrame() {
+        ValidatorSet validatorSet = new ValidatorSet(validator(true), validator(true));
+        validatorSet.observe(recordingObserver());
+        validatorSet.dispatchOnFrame(dispatcher);
+
+        validatorSet.validate();
+
+        assertEquals(0, updates.size());
+
+        frameSource.doFrame();
+
+        assertEquals(3, updates.size());
+        assertEquals(1, dispatcher.getFrameCount());
+    }
+
+    private Validator validator(final boolean valid) {
+        Validator validator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        return valid;
+                    }
+                }));
+        validator.observe(recordingObserver());
+
+        return validator;
+    }
+
+    private Observer<Button> recordingObserver() {
+        return new Observer<Button>(mockButton) {
+            @Override
+            protected void onValidationComplete(Button view, Validator.ValidationResult validationResult) {
+                updates.add(validationResult);
+            }
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.Button;
+import android.widget.EditText;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class InMemoryValidationMetricsTest {
+    @Mock
+    private EditText mockEditText;
+
+    @Mock
+    private Button mockButton;
+
+    private InMemoryValidationMetrics metrics;
+
+    private final Criteria.Condition<EditText> passingCondition = new Criteria.Condition<EditText>() {
+        @Override
+        public boolean evaluate(EditText view) {
+            return true;
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        metrics = new InMemoryValidationMetrics();
+        ValidationMetrics.setDefault(metrics);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ValidationMetrics.setDefault(null);
+    }
+
+    @Test
+    public void validate_SyncCondition_LatenciesRecorded() {
+        Validator<EditText> validator = new Validator<>(new Criteria<>(mockEditText).test(passingCondition));
+        validator.observe(new Observer<Button>(mockButton) {
+            @Override
+            protected void onValidationComplete(Button view, Validator.ValidationResult validationResult) {
+            }
+        });
+
+        validator.validate();
+        validator.validate();
+
+        assertEquals(2, metrics.getConditionLatency(passingCondition).getCount());
+        assertEquals(2, metrics.getEvaluationLatency().getCount());
+        assertEquals(2, metrics.getObserverDispatch().getCount());
+    }
+
+    @Test
+    public void onConditionOffloaded_ConditionDropped_ConditionNotRetained() throws Exception {
+        WeakReference<Criteria.Condition<EditText>> condition = measureCondition();
+
+        for (int i = 0; i < 50 && condition.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertNull(condition.get());
+        assertEquals(1, metrics.getOffloadedConditions().size());
+    }
+
+    /**
+     * Records the latency of a condition and offloads it, then drops every reference to it.
+     *
+     * @return a weak reference to the measured condition
+     */
+    private WeakReference<Criteria.Condition<EditText>> measureCondition() {
+        Criteria.Condition<EditText> condition = new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                return true;
+            }
+        };
+        metrics.onConditionEvaluated(condition, true, 1000);
+        metrics.onConditionOffloaded(null, condition, 1000);
+
+        assertEquals(1, metrics.getConditionLatency(condition).getCount());
+        return new WeakReference<>(condition);
+    }
+
+    @Test
+    public void cancelValidation_EvaluationInProgress_CancellationCounted() {
+        Criteria<EditText> criteria = new Criteria<>(mockEditText)
+                .asyncTest(new Criteria.AsyncCondition<EditText>() {
+                    @Override
+                    protected void evaluate(EditText view) {
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+                    }
+                })
+                .executeOn(new AsyncConditionExecutor(1, 1, AsyncConditionExecutor.RejectionPolicy.Abort));
+        Validator<EditText> validator = new Validator<>(criteria);
+
+        validator.validate();
+        validator.validate();
+        validator.cancelValidation();
+
+        assertEquals(1, metrics.getCancelledCount());
+        assertEquals(1, metrics.getSupersededCount());
+        assertEquals(0, metrics.getEvaluationLatency().getCount());
+    }
+
+    @Test
+    public void getPercentile_RecordedValues_BucketUpperBoundReturned() {
+        InMemoryValidationMetrics.Histogram histogram = new InMemoryValidationMetrics.Histogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(1000000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1023, histogram.getPercentile(50, TimeUnit.NANOSECONDS));
+        assertEquals(1023, histogram.getPercentile(99, TimeUnit.NANOSECONDS));
+        assertEquals(1000000, histogram.getPercentile(100, TimeUnit.NANOSECONDS));
+        assertEquals(1000000, histogram.getMax(TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,87 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IncrementalConditionTest {
+    private TextView mockTextView;
+    private StringBuilder text;
+
+    @Before
+    public void setUp() throws Exception {
+        mockTextView = mock(TextView.class);
+        text = new StringBuilder();
+        when(mockTextView.getText()).thenReturn(text);
+    }
+
+    @Test
+    public void evaluate_EditsAfterFirstScan_NoRescan() {
+        IncrementalCondition condition = Conditions.onlyCharactersIncremental(Conditions.LETTERS_AND_DIGITS);
+        replace(condition, 0, 0, "kiwi");
+
+        assertTrue(condition.evaluate(mockTextView));
+
+        replace(condition, 4, 0, "!");
+        assertFalse(condition.evaluate(mockTextView));
+
+        replace(condition, 4, 1, "s");
+        assertTrue(condition.evaluate(mockTextView));
+
+        assertEquals(1, condition.getFullScanCount());
+        assertEquals(2, condition.getIncrementalUpdateCount());
+    }
+
+    @Test
+    public void evaluate_EditMissed_Rescans() {
+        IncrementalCondition condition = Conditions.onlyCharactersIncremental(Conditions.LETTERS_AND_DIGITS);
+        condition.evaluate(mockTextView);
+
+        // The text changes without the watcher being notified.
+        text.append("bad!");
+
+        assertFalse(condition.evaluate(mockTextView));
+        assertEquals(2, condition.getFullScanCount());
+    }
+
+    @Test
+    public void evaluate_PasteReplacesInvalidCharacters_Valid() {
+        IncrementalCondition condition = Conditions.onlyCharactersIncremental(Conditions.LETTERS_AND_DIGITS);
+        replace(condition, 0, 0, "a!b?c");
+        assertFalse(condition.evaluate(mockTextView));
+
+        replace(condition, 0, 5, "abc");
+
+        assertTrue(condition.evaluate(mockTextView));
+        assertEquals(1, condition.getFullScanCount());
+    }
+
+    @Test
+    public void evaluate_LengthBetween_TracksLength() {
+        IncrementalCondition condition = Conditions.lengthBetweenIncremental(2, 3);
+        condition.evaluate(mockTextView);
+
+        replace(condition, 0, 0, "ab");
+        assertTrue(condition.evaluate(mockTextView));
+
+        replace(condition, 2, 0, "cd");
+        assertFalse(condition.evaluate(mockTextView));
+        assertEquals(1, condition.getFullScanCount());
+    }
+
+    /**
+     * Replaces characters the way an EditText notifies its watchers.
+     */
+    private void replace(IncrementalCondition condition, int start, int before, String replacement) {
+        condition.beforeTextChanged(text, start, before, replacement.length());
+        text.replace(start, start + before, replacement);
+        condition.onTextChanged(text, start, before, replacement.length());
+    }
+}
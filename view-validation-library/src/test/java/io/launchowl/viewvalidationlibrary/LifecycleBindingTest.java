@@ -0,0 +1,191 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.arch.lifecycle.Lifecycle;
+import android.arch.lifecycle.LifecycleOwner;
+import android.arch.lifecycle.LifecycleRegistry;
+import android.widget.EditText;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class LifecycleBindingTest {
+    @Mock
+    private EditText mockEditText;
+
+    private AsyncConditionExecutor executor;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private int evaluationCount = 0;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        executor = new AsyncConditionExecutor(1, 4, AsyncConditionExecutor.RejectionPolicy.Abort);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+    }
+
+    @Test
+    public void bindTo_OwnerStopped_AsyncConditionCancelled() throws Exception {
+        FakeActivity activity = new FakeActivity(executor, started, finished);
+
+        activity.validator.validate();
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        activity.lifecycle.handleLifecycleEvent(Lifecycle.Event.ON_PAUSE);
+        activity.lifecycle.handleLifecycleEvent(Lifecycle.Event.ON_STOP);
+
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        assertTrue(activity.cancellationRequested);
+    }
+
+    @Test
+    public void bindTo_OwnerDestroyed_ValidationRequestsIgnored() {
+        FakeOwner owner = new FakeOwner();
+        Validator<EditText> validator = new Validator<>(new Criteria<>(mockEditText).test(countingCondition));
+        ValidatorSet validatorSet = new ValidatorSet(validator);
+        validator.bindTo(owner);
+        validatorSet.bindTo(owner);
+
+        validatorSet.validate();
+        owner.destroy();
+        validator.validate();
+        validatorSet.validate();
+
+        assertEquals(1, evaluationCount);
+    }
+
+    @Test
+    public void bindTo_AlreadyDestroyed_ValidationRequestsIgnored() {
+        FakeOwner owner = new FakeOwner();
+        owner.destroy();
+        Validator<EditText> validator = new Validator<>(new Criteria<>(mockEditText).test(countingCondition));
+
+        validator.bindTo(owner);
+        validator.validate();
+
+        assertEquals(0, evaluationCount);
+    }
+
+    @Test
+    public void bindTo_OwnerDestroyed_ActivityNotRetained() throws Exception {
+        WeakReference<FakeActivity> activity = startAndDestroyActivity();
+
+        for (int i = 0; i < 50 && activity.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        assertNull(activity.get());
+    }
+
+    /**
+     * Starts an evaluation that runs until it is cancelled and destroys the activity while it
+     * is running, leaving the worker thread as the only thing that could retain the activity.
+     *
+     * @return a weak reference to the destroyed activity
+     */
+    private WeakReference<FakeActivity> startAndDestroyActivity() throws Exception {
+        FakeActivity activity = new FakeActivity(executor, started, finished);
+
+        activity.validator.validate();
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        activity.lifecycle.handleLifecycleEvent(Lifecycle.Event.ON_PAUSE);
+        activity.lifecycle.handleLifecycleEvent(Lifecycle.Event.ON_STOP);
+        activity.lifecycle.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+
+        return new WeakReference<>(activity);
+    }
+
+    private final Criteria.Condition<EditText> countingCondition = new Criteria.Condition<EditText>() {
+        @Override
+        public boolean evaluate(EditText view) {
+            evaluationCount++;
+            return true;
+        }
+    };
+
+    /**
+     * A screen that owns its views and validators, like an {@link android.app.Activity}. The
+     * asynchronous condition is an inner class, so a running evaluation references the screen.
+     */
+    private static class FakeActivity implements LifecycleOwner {
+        final LifecycleRegistry lifecycle = new LifecycleRegistry(this);
+        final EditText userNameEditText = mock(EditText.class);
+        final Validator<EditText> validator;
+        volatile boolean cancellationRequested = false;
+
+        FakeActivity(AsyncConditionExecutor executor, final CountDownLatch started, final CountDownLatch finished) {
+            this.validator = new Validator<>(new Criteria<>(this.userNameEditText)
+                    .asyncTest(new Criteria.AsyncCondition<EditText>() {
+                        @Override
+                        protected void evaluate(EditText view) {
+                            final CountDownLatch cancelled = new CountDownLatch(1);
+                            getCancellationToken().addListener(new CancellationToken.Listener() {
+                                @Override
+                                public void onCancelled() {
+                                    cancelled.countDown();
+                                }
+                            });
+
+                            started.countDown();
+                            try {
+                                cancellationRequested = cancelled.await(5, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            finished.countDown();
+                        }
+
+                        @Override
+                        protected void onCancelled() {
+                        }
+                    })
+                    .executeOn(executor));
+            this.validator.bindTo(this);
+
+            this.lifecycle.handleLifecycleEvent(Lifecycle.Event.ON_CREATE);
+            this.lifecycle.handleLifecycleEvent(Lifecycle.Event.ON_START);
+            this.lifecycle.handleLifecycleEvent(Lifecycle.Event.ON_RESUME);
+        }
+
+        @Override
+        public Lifecycle getLifecycle() {
+            return this.lifecycle;
+        }
+    }
+
+    private static class FakeOwner implements LifecycleOwner {
+        private final LifecycleRegistry lifecycle = new LifecycleRegistry(this);
+
+        FakeOwner() {
+            this.lifecycle.handleLifecycleEvent(Lifecycle.Event.ON_CREATE);
+        }
+
+        void destroy() {
+            this.lifecycle.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+        }
+
+        @Override
+        public Lifecycle getLifecycle() {
+            return this.lifecycle;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.EditText;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class OffloadTest {
+    @Mock
+    private EditText mockEditText;
+
+    private AsyncConditionExecutor executor;
+    private final CountDownLatch offloaded = new CountDownLatch(1);
+    private final List<Validator.ValidationResult> results = new ArrayList<>();
+    private final Thread testThread = Thread.currentThread();
+    private volatile Thread evaluateThread;
+
+    private volatile Object evaluatedText;
+
+    private final Conditions.TextCondition slowCondition = new Conditions.TextCondition() {
+        @Override
+        boolean test(CharSequence text) {
+            evaluateThread = Thread.currentThread();
+            sleep();
+            return true;
+        }
+
+        @Override
+        boolean testSnapshot(String text) {
+            evaluateThread = Thread.currentThread();
+            evaluatedText = text;
+            sleep();
+            offloaded.countDown();
+            return true;
+        }
+    };
+
+    private final Criteria.Condition<EditText> slowViewCondition = new Criteria.Condition<EditText>() {
+        @Override
+        public boolean evaluate(EditText view) {
+            sleep();
+            return true;
+        }
+    };
+
+    private final Criteria.Condition<EditText> fastCondition = new Criteria.Condition<EditText>() {
+        @Override
+        public boolean evaluate(EditText view) {
+            return true;
+        }
+    };
+
+    private final Criteria.EvalCompleteListener listener = new Criteria.EvalCompleteListener() {
+        @Override
+        public void onComplete(Validator.ValidationResult validationResult) {
+            results.add(validationResult);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        executor = new AsyncConditionExecutor(1, 4, AsyncConditionExecutor.RejectionPolicy.Abort);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+    }
+
+    @Test
+    public void evaluate_ConditionExceedsBudget_ConditionOffloaded() throws Exception {
+        Criteria<EditText> criteria = new Criteria<>(mockEditText)
+                .test(fastCondition)
+                .test(slowCondition)
+                .offloadSlowConditions(1, TimeUnit.MILLISECONDS)
+                .executeOn(executor);
+
+        for (int i = 0; i < 3; i++) {
+            criteria.evaluate(listener);
+        }
+
+        assertEquals(3, results.size());
+        assertTrue(criteria.getOffloadedConditions().isEmpty());
+
+        criteria.evaluate(listener);
+
+        assertTrue(offloaded.await(1, TimeUnit.SECONDS));
+        assertNotSame(testThread, evaluateThread);
+        assertEquals("", evaluatedText);
+        assertEquals(Collections.<Criteria.Condition<? super EditText>>singletonList(slowCondition),
+                criteria.getOffloadedConditions());
+        assertTrue(criteria.isEvaluating());
+
+        criteria.asyncConditionComplete(criteria.getGeneration(), true);
+
+        assertFalse(criteria.isEvaluating());
+        assertEquals(Validator.ValidationResult.Valid, results.get(results.size() - 1));
+    }
+
+    @Test
+    public void evaluate_ConditionReadingViewExceedsBudget_EvaluatedInline() {
+        Criteria<EditText> criteria = new Criteria<>(mockEditText)
+                .test(slowViewCondition)
+                .offloadSlowConditions(1, TimeUnit.MILLISECONDS)
+                .executeOn(executor);
+
+        for (int i = 0; i < 5; i++) {
+            criteria.evaluate(listener);
+        }
+
+        assertEquals(5, results.size());
+        assertTrue(criteria.getOffloadedConditions().isEmpty());
+        assertEquals(0, executor.getSubmittedCount());
+    }
+
+    @Test
+    public void evaluate_ConditionsWithinBudget_EvaluatedInline() {
+        Criteria<EditText> criteria = new Criteria<>(mockEditText)
+                .test(fastCondition)
+                .offloadSlowConditions(1, TimeUnit.SECONDS)
+                .executeOn(executor);
+
+        for (int i = 0; i < 10; i++) {
+            criteria.evaluate(listener);
+        }
+
+        assertEquals(10, results.size());
+        assertTrue(criteria.getOffloadedConditions().isEmpty());
+        assertEquals(0, executor.getSubmittedCount());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
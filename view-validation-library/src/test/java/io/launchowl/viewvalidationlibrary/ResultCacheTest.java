@@ -0,0 +1,54 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResultCacheTest {
+    private long now = 0;
+
+    @Test
+    public void get_ResultCached_Hit() throws Exception {
+        ResultCache resultCache = new ResultCache(10, 1, TimeUnit.MINUTES);
+        resultCache.put("strawberry", true);
+
+        assertTrue(resultCache.get("strawberry"));
+        assertNull(resultCache.get("kiwi"));
+        assertEquals(1, resultCache.getHitCount());
+        assertEquals(1, resultCache.getMissCount());
+    }
+
+    @Test
+    public void put_MaxSizeExceeded_LeastRecentlyUsedEvicted() throws Exception {
+        ResultCache resultCache = new ResultCache(2, 1, TimeUnit.MINUTES);
+        resultCache.put("apple", true);
+        resultCache.put("banana", true);
+        resultCache.get("apple");
+        resultCache.put("kiwi", false);
+
+        assertEquals(2, resultCache.size());
+        assertEquals(1, resultCache.getEvictionCount());
+        assertNull(resultCache.get("banana"));
+        assertTrue(resultCache.get("apple"));
+    }
+
+    @Test
+    public void get_ResultExpired_MissAndEvicted() throws Exception {
+        ResultCache resultCache = new ResultCache(10, 100, TimeUnit.MILLISECONDS) {
+            @Override
+            long now() {
+                return now;
+            }
+        };
+        resultCache.put("orange", false);
+        now = TimeUnit.MILLISECONDS.toNanos(101);
+
+        assertNull(resultCache.get("orange"));
+        assertEquals(1, resultCache.getEvictionCount());
+        assertEquals(0, resultCache.size());
+    }
+}
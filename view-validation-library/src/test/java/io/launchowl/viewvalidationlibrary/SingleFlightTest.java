@@ -0,0 +1,139 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.EditText;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class SingleFlightTest {
+    @Mock
+    private EditText mockEditText1;
+
+    @Mock
+    private EditText mockEditText2;
+
+    private final List<Validator.ValidationResult> results = new ArrayList<>();
+
+    private final Criteria.EvalCompleteListener evalCompleteListener = new Criteria.EvalCompleteListener() {
+        @Override
+        public void onComplete(Validator.ValidationResult validationResult) {
+            results.add(validationResult);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void finish_TwoConditionsSameKey_OneFlightBothNotified() throws Exception {
+        long joinedCount = SingleFlight.getJoinedCount();
+        Criteria<EditText> criteria1 = new Criteria<>(mockEditText1).asyncTest(usernameAvailable("joined"));
+        Criteria<EditText> criteria2 = new Criteria<>(mockEditText2).asyncTest(usernameAvailable("joined"));
+
+        criteria1.evaluate(evalCompleteListener);
+        criteria2.evaluate(evalCompleteListener);
+
+        SingleFlight.Flight flight = SingleFlight.find("joined", "realkiwi");
+        assertEquals(2, flight.getSubscriberCount());
+        assertEquals(joinedCount + 1, SingleFlight.getJoinedCount());
+
+        flight.finish(false);
+
+        assertEquals(Arrays.asList(Validator.ValidationResult.Invalid, Validator.ValidationResult.Invalid), results);
+        assertNull(SingleFlight.find("joined", "realkiwi"));
+    }
+
+    @Test
+    public void unsubscribe_OneOfTwoSubscribersCancels_FlightContinues() throws Exception {
+        Criteria<EditText> criteria1 = new Criteria<>(mockEditText1).asyncTest(usernameAvailable("partial"));
+        Criteria<EditText> criteria2 = new Criteria<>(mockEditText2).asyncTest(usernameAvailable("partial"));
+
+        criteria1.evaluate(evalCompleteListener);
+        criteria2.evaluate(evalCompleteListener);
+        criteria1.cancelValidation();
+
+        SingleFlight.Flight flight = SingleFlight.find("partial", "realkiwi");
+        assertEquals(1, flight.getSubscriberCount());
+
+        flight.finish(true);
+
+        assertEquals(Arrays.asList(Validator.ValidationResult.Valid), results);
+    }
+
+    @Test
+    public void unsubscribe_AllSubscribersCancel_FlightCancelled() throws Exception {
+        Criteria<EditText> criteria1 = new Criteria<>(mockEditText1).asyncTest(usernameAvailable("cancelled"));
+        Criteria<EditText> criteria2 = new Criteria<>(mockEditText2).asyncTest(usernameAvailable("cancelled"));
+
+        criteria1.evaluate(evalCompleteListener);
+        criteria2.evaluate(evalCompleteListener);
+        SingleFlight.Flight flight = SingleFlight.find("cancelled", "realkiwi");
+
+        criteria1.cancelValidation();
+        criteria2.cancelValidation();
+        flight.finish(true);
+
+        assertNull(SingleFlight.find("cancelled", "realkiwi"));
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void subscribe_ConditionJoinsFlight_ViewNotKept() throws Exception {
+        AsyncConditionExecutor executor = new AsyncConditionExecutor(1, 4, AsyncConditionExecutor.RejectionPolicy.Abort);
+        Criteria.AsyncCondition<EditText> joining = idleCondition("kept");
+        Criteria<EditText> criteria1 = new Criteria<>(mockEditText1).asyncTest(idleCondition("kept")).executeOn(executor);
+        Criteria<EditText> criteria2 = new Criteria<>(mockEditText2).asyncTest(joining).executeOn(executor);
+
+        criteria1.evaluate(evalCompleteListener);
+        criteria2.evaluate(evalCompleteListener);
+
+        assertEquals(2, SingleFlight.find("kept", "realkiwi").getSubscriberCount());
+        assertNull(joining.getPendingInput());
+        criteria1.cancelValidation();
+        criteria2.cancelValidation();
+        executor.shutdown();
+    }
+
+    private Criteria.AsyncCondition<EditText> idleCondition(String identity) {
+        Criteria.AsyncCondition<EditText> asyncCondition = new Criteria.AsyncCondition<EditText>() {
+            @Override
+            protected void evaluate(EditText view) {
+            }
+
+            @Override
+            protected void onCancelled() {
+            }
+        };
+
+        return asyncCondition.singleFlight(identity, new Criteria.KeyExtractor<EditText>() {
+            @Override
+            public Object extractKey(EditText view) {
+                return "realkiwi";
+            }
+        });
+    }
+
+    private Criteria.AsyncCondition<EditText> usernameAvailable(String identity) {
+        Criteria.AsyncCondition<EditText> asyncCondition = mock(Criteria.AsyncCondition.class);
+
+        return asyncCondition.singleFlight(identity, new Criteria.KeyExtractor<EditText>() {
+            @Override
+            public Object extractKey(EditText view) {
+                return "realkiwi";
+            }
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.text.Editable;
+import android.widget.EditText;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class SnapshotAsyncConditionTest {
+    @Mock
+    private EditText mockEditText;
+
+    @Mock
+    private Editable mockEditable;
+
+    private AsyncConditionExecutor executor;
+    private final CountDownLatch evaluated = new CountDownLatch(1);
+    private volatile Thread snapshotThread;
+    private volatile Thread evaluateThread;
+    private volatile String evaluatedSnapshot;
+
+    private final Criteria.SnapshotAsyncCondition<EditText, String> condition =
+            new Criteria.SnapshotAsyncCondition<EditText, String>() {
+                @Override
+                protected String snapshot(EditText view) {
+                    snapshotThread = Thread.currentThread();
+                    return view.getText().toString();
+                }
+
+                @Override
+                protected void evaluateSnapshot(String snapshot) {
+                    evaluateThread = Thread.currentThread();
+                    evaluatedSnapshot = snapshot;
+                    evaluated.countDown();
+                }
+
+                @Override
+                protected void onCancelled() {
+                }
+            };
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        executor = new AsyncConditionExecutor(1, 4, AsyncConditionExecutor.RejectionPolicy.Abort);
+        when(mockEditText.getText()).thenReturn(mockEditable);
+        when(mockEditable.toString()).thenReturn("kiwi");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+    }
+
+    @Test
+    public void initEvaluate_SnapshotTakenOnCallingThread_SnapshotEvaluatedOnWorker() throws Exception {
+        Criteria<EditText> criteria = new Criteria<>(mockEditText).executeOn(executor);
+
+        condition.getCachedResult(mockEditText);
+        condition.initEvaluate(criteria, mockEditText, 1);
+
+        assertTrue(evaluated.await(1, TimeUnit.SECONDS));
+        assertSame(Thread.currentThread(), snapshotThread);
+        assertNotSame(Thread.currentThread(), evaluateThread);
+        assertEquals("kiwi", evaluatedSnapshot);
+    }
+
+    @Test
+    public void getCachedResult_Memoized_SnapshotIsKey() {
+        condition.memoize(10, 1, TimeUnit.MINUTES);
+
+        assertNull(condition.getCachedResult(mockEditText));
+
+        condition.getResultCache().put("kiwi", true);
+
+        assertEquals(Boolean.TRUE, condition.getCachedResult(mockEditText));
+    }
+}
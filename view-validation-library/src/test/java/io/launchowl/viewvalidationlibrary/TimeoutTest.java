@@ -0,0 +1,162 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.EditText;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimeoutTest {
+    @Mock
+    private EditText mockEditText;
+
+    private AsyncConditionExecutor executor;
+    private FakeScheduler scheduler;
+    private final CountDownLatch blockWorker = new CountDownLatch(1);
+    private final CountDownLatch evaluated = new CountDownLatch(1);
+    private final List<Validator.ValidationResult> results = new ArrayList<>();
+    private volatile long remainingMillis;
+    private volatile CancellationToken cancellationToken;
+
+    private final Criteria.AsyncCondition<EditText> condition = new Criteria.AsyncCondition<EditText>() {
+        @Override
+        protected void evaluate(EditText view) {
+            remainingMillis = getRemainingTime(TimeUnit.MILLISECONDS);
+            cancellationToken = getCancellationToken();
+            evaluated.countDown();
+            try {
+                blockWorker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        protected void onCancelled() {
+        }
+    };
+
+    private final Criteria.EvalCompleteListener listener = new Criteria.EvalCompleteListener() {
+        @Override
+        public void onComplete(Validator.ValidationResult validationResult) {
+            results.add(validationResult);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        executor = new AsyncConditionExecutor(1, 4, AsyncConditionExecutor.RejectionPolicy.Abort);
+        scheduler = new FakeScheduler();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        blockWorker.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void evaluate_CriteriaTimeoutElapses_OutcomeDelivered() {
+        Criteria<EditText> criteria = newCriteria()
+                .timeout(100, TimeUnit.MILLISECONDS, Validator.ValidationResult.Unknown);
+
+        criteria.evaluate(listener);
+        scheduler.advanceBy(99);
+
+        assertTrue(results.isEmpty());
+
+        scheduler.advanceBy(1);
+
+        assertEquals(1, results.size());
+        assertEquals(Validator.ValidationResult.Unknown, results.get(0));
+        assertEquals(1, criteria.getTimeoutCount());
+    }
+
+    @Test
+    public void evaluate_ConditionTimeoutElapses_LateResultDropped() throws Exception {
+        condition.timeout(50, TimeUnit.MILLISECONDS, Validator.ValidationResult.Invalid);
+        Criteria<EditText> criteria = newCriteria();
+
+        criteria.evaluate(listener);
+        assertTrue(evaluated.await(1, TimeUnit.SECONDS));
+        scheduler.advanceBy(50);
+        assertTrue(cancellationToken.isCancellationRequested());
+        condition.onResult(criteria.getGeneration(), true);
+
+        assertEquals(1, results.size());
+        assertEquals(Validator.ValidationResult.Invalid, results.get(0));
+        assertEquals(1, condition.getTimeoutCount());
+        assertEquals(1, criteria.getTimeoutCount());
+    }
+
+    @Test
+    public void evaluate_ConditionCompletesInTime_TimeoutsRemoved() {
+        condition.timeout(50, TimeUnit.MILLISECONDS, Validator.ValidationResult.Unknown);
+        Criteria<EditText> criteria = newCriteria()
+                .timeout(100, TimeUnit.MILLISECONDS, Validator.ValidationResult.Unknown);
+
+        criteria.evaluate(listener);
+        condition.onResult(criteria.getGeneration(), true);
+
+        assertEquals(0, scheduler.pendingCount());
+        assertEquals(Validator.ValidationResult.Valid, results.get(0));
+        assertEquals(0, criteria.getTimeoutCount());
+    }
+
+    @Test
+    public void evaluate_FailFastReEvaluationFails_InFlightConditionCancelledAndTimeoutRemoved() throws Exception {
+        final boolean[] passes = { true };
+        condition.timeout(50, TimeUnit.MILLISECONDS, Validator.ValidationResult.Unknown);
+        Criteria<EditText> criteria = newCriteria()
+                .failFast(true)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        return passes[0];
+                    }
+                });
+
+        criteria.evaluate(listener);
+        assertTrue(evaluated.await(1, TimeUnit.SECONDS));
+        passes[0] = false;
+        criteria.evaluate(listener);
+
+        assertTrue(cancellationToken.isCancellationRequested());
+        assertEquals(0, scheduler.pendingCount());
+        assertEquals(1, results.size());
+        assertEquals(Validator.ValidationResult.Invalid, results.get(0));
+    }
+
+    @Test
+    public void getRemainingTime_ConditionAndCriteriaTimeouts_EarlierDeadlineReported() throws Exception {
+        condition.timeout(5, TimeUnit.SECONDS, Validator.ValidationResult.Unknown);
+        Criteria<EditText> criteria = newCriteria()
+                .timeout(2, TimeUnit.SECONDS, Validator.ValidationResult.Unknown);
+
+        criteria.evaluate(listener);
+
+        assertTrue(evaluated.await(1, TimeUnit.SECONDS));
+        assertTrue(remainingMillis > 0);
+        assertTrue(remainingMillis <= 2000);
+    }
+
+    private Criteria<EditText> newCriteria() {
+        Criteria<EditText> criteria = new Criteria<>(mockEditText)
+                .asyncTest(condition)
+                .executeOn(executor);
+        criteria.setScheduler(scheduler);
+
+        return criteria;
+    }
+}
@@ -0,0 +1,104 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.EditText;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ValidationGraphTest {
+    @Mock
+    private EditText mockPassword;
+
+    @Mock
+    private EditText mockConfirmPassword;
+
+    @Mock
+    private EditText mockEmail;
+
+    private final List<String> evaluated = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void viewChanged_UpstreamViewChanged_DependentsValidatedInOrder() {
+        Validator<EditText> confirmValidator = new Validator<>(new Criteria<EditText>(mockConfirmPassword)
+                .dependsOn(mockPassword)
+                .test(records("confirm")));
+        Validator<EditText> passwordValidator = new Validator<>(new Criteria<EditText>(mockPassword)
+                .test(records("password")));
+        Validator<EditText> emailValidator = new Validator<>(new Criteria<EditText>(mockEmail)
+                .test(records("email")));
+
+        ValidationGraph graph = new ValidationGraph(confirmValidator, passwordValidator, emailValidator);
+        graph.viewChanged(mockPassword);
+
+        assertEquals(Arrays.asList("password", "confirm"), evaluated);
+        assertEquals(2, graph.getEvaluationCount());
+        assertEquals(1, graph.getSkippedEvaluationCount());
+    }
+
+    @Test
+    public void viewChanged_DownstreamViewChanged_OnlyDownstreamValidated() {
+        Validator<EditText> passwordValidator = new Validator<>(new Criteria<EditText>(mockPassword)
+                .test(records("password")));
+        Validator<EditText> confirmValidator = new Validator<>(new Criteria<EditText>(mockConfirmPassword)
+                .dependsOn(mockPassword)
+                .test(records("confirm")));
+
+        ValidationGraph graph = new ValidationGraph(passwordValidator, confirmValidator);
+        graph.viewChanged(mockConfirmPassword);
+
+        assertEquals(Collections.singletonList("confirm"), evaluated);
+        assertEquals(1, graph.getSkippedEvaluationCount());
+    }
+
+    @Test
+    public void viewChanged_ChainOfDependencies_TransitiveDependentsValidated() {
+        Validator<EditText> emailValidator = new Validator<>(new Criteria<EditText>(mockEmail)
+                .dependsOn(mockConfirmPassword)
+                .test(records("email")));
+        Validator<EditText> confirmValidator = new Validator<>(new Criteria<EditText>(mockConfirmPassword)
+                .dependsOn(mockPassword)
+                .test(records("confirm")));
+        Validator<EditText> passwordValidator = new Validator<>(new Criteria<EditText>(mockPassword)
+                .test(records("password")));
+
+        ValidationGraph graph = new ValidationGraph(emailValidator, confirmValidator, passwordValidator);
+        graph.viewChanged(mockPassword);
+
+        assertEquals(Arrays.asList("password", "confirm", "email"), evaluated);
+        assertEquals(Arrays.<Validator>asList(passwordValidator, confirmValidator, emailValidator), graph.getOrder());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void validate_CyclicDependencies_ThrowsIllegalStateException() {
+        ValidationGraph graph = new ValidationGraph(
+                new Validator<>(new Criteria<EditText>(mockPassword).dependsOn(mockConfirmPassword)),
+                new Validator<>(new Criteria<EditText>(mockConfirmPassword).dependsOn(mockPassword)));
+
+        graph.validate();
+    }
+
+    private Criteria.Condition<EditText> records(final String name) {
+        return new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                evaluated.add(name);
+
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,131 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.Button;
+import android.widget.EditText;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ValidationTracerTest {
+    @Mock
+    private EditText mockEditText;
+
+    @Mock
+    private Button mockButton;
+
+    private RecordingTracer tracer;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        tracer = new RecordingTracer();
+        ValidationTracer.setDefault(tracer);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ValidationTracer.setDefault(null);
+    }
+
+    @Test
+    public void validate_SyncConditions_SectionsNested() {
+        Validator<EditText> validator = new Validator<>(new Criteria<>(mockEditText)
+                .test(new PassingCondition())
+                .test(new FailingCondition()));
+        validator.observe(new ButtonObserver(mockButton));
+
+        validator.validate();
+
+        assertEquals(Arrays.asList(
+                "Criteria.evaluate",
+                "  ValidationTracerTest$PassingCondition",
+                "  ValidationTracerTest$FailingCondition",
+                "  Validator.notify",
+                "    ValidationTracerTest$ButtonObserver"
+        ), tracer.sections);
+        assertEquals(0, tracer.depth);
+    }
+
+    @Test
+    public void validate_ConditionThrows_SectionsEnded() {
+        Validator<EditText> validator = new Validator<>(new Criteria<>(mockEditText)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        throw new IllegalStateException();
+                    }
+                }));
+
+        try {
+            validator.validate();
+        } catch (IllegalStateException e) {
+            // Expected.
+        }
+
+        assertEquals(0, tracer.depth);
+    }
+
+    @Test
+    public void sectionName_LongClassName_Shortened() {
+        assertEquals("ValidationTracerTest$PassingCondition", ValidationTracer.sectionName(new PassingCondition()));
+        assertEquals(127, ValidationTracer.sectionName(
+                new AVeryLongConditionNameThatKeepsGoingAndGoingAndGoingAndGoingAndGoingAndGoingAndGoingAndGoingAndGoingAndGoingAndGoingAndGoing()).length());
+    }
+
+    private static class RecordingTracer extends ValidationTracer {
+        final List<String> sections = new ArrayList<>();
+        int depth = 0;
+
+        @Override
+        public void beginSection(String name) {
+            StringBuilder indent = new StringBuilder();
+            for (int i = 0; i < depth; i++) {
+                indent.append("  ");
+            }
+            sections.add(indent + name);
+            depth++;
+        }
+
+        @Override
+        public void endSection() {
+            depth--;
+        }
+    }
+
+    private static class PassingCondition implements Criteria.Condition<EditText> {
+        @Override
+        public boolean evaluate(EditText view) {
+            return true;
+        }
+    }
+
+    private static class FailingCondition implements Criteria.Condition<EditText> {
+        @Override
+        public boolean evaluate(EditText view) {
+            return false;
+        }
+    }
+
+    private static class AVeryLongConditionNameThatKeepsGoingAndGoingAndGoingAndGoingAndGoingAndGoingAndGoingAndGoingAndGoingAndGoingAndGoingAndGoing
+            extends PassingCondition {
+    }
+
+    private static class ButtonObserver extends Observer<Button> {
+        ButtonObserver(Button button) {
+            super(button);
+        }
+
+        @Override
+        protected void onValidationComplete(Button view, Validator.ValidationResult validationResult) {
+        }
+    }
+}
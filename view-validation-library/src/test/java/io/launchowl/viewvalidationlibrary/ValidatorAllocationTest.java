@@ -0,0 +1,102 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.Button;
+import android.widget.EditText;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+public class ValidatorAllocationTest {
+    private static final int WARM_UP_ITERATIONS = 20000;
+    private static final int MEASURED_ITERATIONS = 10000;
+
+    @Mock
+    private EditText mockEditText;
+
+    @Mock
+    private Button mockButton;
+
+    private com.sun.management.ThreadMXBean threadMXBean;
+    private int updates;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void validate_SyncConditionsSteadyState_ZeroBytesAllocated() {
+        Validator validator = validator(false);
+
+        assertEquals(0, allocatedBytes(validator));
+        assertEquals(WARM_UP_ITERATIONS + MEASURED_ITERATIONS + 1, updates / 2);
+    }
+
+    @Test
+    public void validate_FailFastDistinctUntilChanged_ZeroBytesAllocated() {
+        Validator validator = validator(true);
+        validator.distinctUntilChanged(true);
+
+        assertEquals(0, allocatedBytes(validator));
+    }
+
+    private long allocatedBytes(Validator validator) {
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            validator.validate();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        // The first call may allocate while the MXBean initializes.
+        threadMXBean.getThreadAllocatedBytes(threadId);
+
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            validator.validate();
+        }
+        long after = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        validator.validate();
+
+        return after - before;
+    }
+
+    private Validator validator(boolean failFast) {
+        Criteria<EditText> criteria = new Criteria<>(mockEditText).failFast(failFast);
+        for (int i = 0; i < 3; i++) {
+            final int index = i;
+            criteria.test(new Criteria.Condition<EditText>() {
+                @Override
+                public boolean evaluate(EditText view) {
+                    return index >= 0;
+                }
+            }, i);
+        }
+
+        Validator validator = new Validator<>(criteria);
+        validator.observe(observer(), observer());
+
+        return validator;
+    }
+
+    private Observer<Button> observer() {
+        return new Observer<Button>(mockButton) {
+            @Override
+            protected void onValidationComplete(Button view, Validator.ValidationResult validationResult) {
+                updates++;
+            }
+        };
+    }
+}
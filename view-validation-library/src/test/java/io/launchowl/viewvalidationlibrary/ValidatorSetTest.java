@@ -12,11 +12,17 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import io.launchowl.viewvalidationlibrary.Criteria;
 import io.launchowl.viewvalidationlibrary.Validator;
 import io.launchowl.viewvalidationlibrary.ValidatorSet;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
 import static org.powermock.api.mockito.PowerMockito.when;
 
 @RunWith(PowerMockRunner.class)
@@ -115,4 +121,325 @@ public class ValidatorSetTest {
         assertEquals(2, validatorsValidated);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void validate_OneValidatorInvalid_SetNotifiedOnceWithCombinedResult() throws Exception {
+        final List<ValidatorSet.Result> results = new ArrayList<>();
+        final List<Validator.ValidationResult> observed = new ArrayList<>();
+        Validator validValidator = new Validator<EditText>(new Criteria<EditText>(mockEditText).test(passes()));
+        Validator invalidValidator = new Validator<EditText>(new Criteria<EditText>(mockEditText).test(fails()));
+
+        ValidatorSet validatorSet = new ValidatorSet(validValidator, invalidValidator);
+        validatorSet.observe(new Observer<Button>(mockButton1) {
+            @Override
+            protected void onValidationComplete(Button view, Validator.ValidationResult validationResult) {
+                observed.add(validationResult);
+            }
+        });
+        validatorSet.setCompleteListener(new ValidatorSet.SetCompleteListener() {
+            @Override
+            public void onComplete(ValidatorSet.Result result) {
+                results.add(result);
+            }
+        });
+        validatorSet.validate();
+
+        assertEquals(Collections.singletonList(Validator.ValidationResult.Invalid), observed);
+        assertEquals(1, results.size());
+        assertEquals(invalidValidator, results.get(0).getFirstInvalid());
+        assertEquals(Validator.ValidationResult.Valid, results.get(0).getResult(validValidator));
+        assertEquals(2, results.get(0).getResults().size());
+    }
+
+    @Test
+    public void validate_AsyncValidatorPending_SetCompletesAfterAsyncResult() throws Exception {
+        final List<ValidatorSet.Result> results = new ArrayList<>();
+        Validator syncValidator = new Validator<EditText>(new Criteria<EditText>(mockEditText).test(passes()));
+        Validator<EditText> asyncValidator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .executeOn(new AsyncConditionExecutor(1, 1, AsyncConditionExecutor.RejectionPolicy.Abort))
+                .asyncTest(mock(Criteria.AsyncCondition.class)));
+
+        ValidatorSet validatorSet = new ValidatorSet(syncValidator, asyncValidator);
+        validatorSet.setCompleteListener(new ValidatorSet.SetCompleteListener() {
+            @Override
+            public void onComplete(ValidatorSet.Result result) {
+                results.add(result);
+            }
+        });
+        validatorSet.validate();
+
+        assertEquals(0, results.size());
+
+        asyncValidator.criteria.asyncConditionComplete(asyncValidator.criteria.getGeneration(), true);
+
+        assertEquals(1, results.size());
+        assertEquals(Validator.ValidationResult.Valid, results.get(0).getValidationResult());
+        assertNull(results.get(0).getFirstInvalid());
+    }
+
+    @Test
+    public void validate_MemberValidatedDuringRound_RoundCompletesWithLatestResult() throws Exception {
+        final List<ValidatorSet.Result> results = new ArrayList<>();
+        Validator syncValidator = new Validator<EditText>(new Criteria<EditText>(mockEditText).test(passes()));
+        Validator<EditText> asyncValidator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .executeOn(new AsyncConditionExecutor(1, 1, AsyncConditionExecutor.RejectionPolicy.Abort))
+                .asyncTest(mock(Criteria.AsyncCondition.class)));
+
+        ValidatorSet validatorSet = new ValidatorSet(syncValidator, asyncValidator);
+        validatorSet.setCompleteListener(new ValidatorSet.SetCompleteListener() {
+            @Override
+            public void onComplete(ValidatorSet.Result result) {
+                results.add(result);
+            }
+        });
+        validatorSet.validate();
+
+        // Supersedes the evaluation started by the round.
+        asyncValidator.validate();
+        asyncValidator.criteria.asyncConditionComplete(asyncValidator.criteria.getGeneration(), false);
+
+        assertEquals(1, results.size());
+        assertEquals(Validator.ValidationResult.Invalid, results.get(0).getValidationResult());
+        assertSame(asyncValidator, results.get(0).getFirstInvalid());
+    }
+
+    @Test
+    public void validate_RepeatedRoundsWhileAsyncPending_OneListenerPerValidator() throws Exception {
+        final List<ValidatorSet.Result> results = new ArrayList<>();
+        Validator<EditText> asyncValidator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .executeOn(new AsyncConditionExecutor(1, 1, AsyncConditionExecutor.RejectionPolicy.Abort))
+                .asyncTest(mock(Criteria.AsyncCondition.class)));
+
+        ValidatorSet validatorSet = new ValidatorSet(asyncValidator);
+        validatorSet.setCompleteListener(new ValidatorSet.SetCompleteListener() {
+            @Override
+            public void onComplete(ValidatorSet.Result result) {
+                results.add(result);
+            }
+        });
+        validatorSet.validate();
+        validatorSet.validate();
+        validatorSet.validate();
+
+        assertEquals(1, asyncValidator.getEvalCompleteListenerCount());
+
+        asyncValidator.criteria.asyncConditionComplete(asyncValidator.criteria.getGeneration(), true);
+
+        assertEquals(1, results.size());
+        assertEquals(0, asyncValidator.getEvalCompleteListenerCount());
+    }
+
+    @Test
+    public void validate_FailFastFirstValidatorInvalid_RemainingValidatorsSkipped() throws Exception {
+        final List<ValidatorSet.Result> results = new ArrayList<>();
+        validatorsValidated = 0;
+        Validator invalidValidator = new Validator<EditText>(new Criteria<EditText>(mockEditText).test(fails()));
+        Validator skippedValidator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        validatorsValidated++;
+
+                        return true;
+                    }
+                }));
+
+        ValidatorSet validatorSet = new ValidatorSet(invalidValidator, skippedValidator);
+        validatorSet.failFast(true);
+        validatorSet.setCompleteListener(new ValidatorSet.SetCompleteListener() {
+            @Override
+            public void onComplete(ValidatorSet.Result result) {
+                results.add(result);
+            }
+        });
+        validatorSet.validate();
+
+        assertEquals(0, validatorsValidated);
+        assertEquals(1, results.size());
+        assertEquals(Validator.ValidationResult.Invalid, results.get(0).getValidationResult());
+        assertNull(results.get(0).getResult(skippedValidator));
+    }
+
+    @Test
+    public void validateDebounced_BurstOfRequests_OneRound() throws Exception {
+        final List<ValidatorSet.Result> results = new ArrayList<>();
+        FakeScheduler scheduler = new FakeScheduler();
+        ValidatorSet validatorSet = new ValidatorSet(
+                new Validator<EditText>(new Criteria<EditText>(mockEditText).test(passes())));
+        validatorSet.setScheduler(scheduler);
+        validatorSet.setCompleteListener(new ValidatorSet.SetCompleteListener() {
+            @Override
+            public void onComplete(ValidatorSet.Result result) {
+                results.add(result);
+            }
+        });
+
+        validatorSet.validateDebounced(250, TimeUnit.MILLISECONDS);
+        validatorSet.validateDebounced(250, TimeUnit.MILLISECONDS);
+        scheduler.advanceBy(250);
+
+        assertEquals(1, results.size());
+        assertEquals(1, validatorSet.getElidedEvaluationCount());
+    }
+
+    @Test
+    public void validate_DebouncedRoundPending_RoundReplaced() throws Exception {
+        final List<ValidatorSet.Result> results = new ArrayList<>();
+        validatorsValidated = 0;
+        FakeScheduler scheduler = new FakeScheduler();
+        ValidatorSet validatorSet = new ValidatorSet(new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        validatorsValidated++;
+
+                        return true;
+                    }
+                })));
+        validatorSet.setScheduler(scheduler);
+        validatorSet.setCompleteListener(new ValidatorSet.SetCompleteListener() {
+            @Override
+            public void onComplete(ValidatorSet.Result result) {
+                results.add(result);
+            }
+        });
+
+        validatorSet.validateDebounced(250, TimeUnit.MILLISECONDS);
+        validatorSet.validate();
+        scheduler.advanceBy(250);
+
+        assertEquals(1, validatorsValidated);
+        assertEquals(1, results.size());
+        assertEquals(0, scheduler.pendingCount());
+        assertEquals(1, validatorSet.getElidedEvaluationCount());
+    }
+
+    private String firstInput = "kiwi";
+    private String secondInput = "apple";
+
+    @Test
+    public void validate_IncrementalOneInputChanged_OnlyChangedValidatorEvaluated() throws Exception {
+        final List<ValidatorSet.Result> results = new ArrayList<>();
+        validatorsValidated = 0;
+        Validator<EditText> firstValidator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .test(fails()));
+        firstValidator.fingerprint(new Criteria.KeyExtractor<EditText>() {
+            @Override
+            public Object extractKey(EditText view) {
+                return firstInput;
+            }
+        });
+        Validator<EditText> secondValidator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        validatorsValidated++;
+
+                        return true;
+                    }
+                }));
+        secondValidator.fingerprint(new Criteria.KeyExtractor<EditText>() {
+            @Override
+            public Object extractKey(EditText view) {
+                return secondInput;
+            }
+        });
+
+        ValidatorSet validatorSet = new ValidatorSet(firstValidator, secondValidator);
+        validatorSet.incremental(true);
+        validatorSet.setCompleteListener(new ValidatorSet.SetCompleteListener() {
+            @Override
+            public void onComplete(ValidatorSet.Result result) {
+                results.add(result);
+            }
+        });
+        validatorSet.validate();
+        validatorSet.validate();
+
+        assertEquals(1, validatorsValidated);
+        assertEquals(2, validatorSet.getSkippedEvaluationCount());
+
+        secondInput = "banana";
+        validatorSet.validate();
+
+        assertEquals(2, validatorsValidated);
+        assertEquals(3, validatorSet.getSkippedEvaluationCount());
+        assertEquals(3, results.size());
+        assertEquals(Validator.ValidationResult.Invalid, results.get(2).getValidationResult());
+        assertEquals(firstValidator, results.get(2).getFirstInvalid());
+    }
+
+    @Test
+    public void validate_IncrementalMemberValidatedOnChangedInput_ResultNotReused() throws Exception {
+        Validator<EditText> asyncValidator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .executeOn(new AsyncConditionExecutor(1, 1, AsyncConditionExecutor.RejectionPolicy.Abort))
+                .asyncTest(mock(Criteria.AsyncCondition.class)));
+        asyncValidator.fingerprint(new Criteria.KeyExtractor<EditText>() {
+            @Override
+            public Object extractKey(EditText view) {
+                return firstInput;
+            }
+        });
+
+        ValidatorSet validatorSet = new ValidatorSet(asyncValidator);
+        validatorSet.incremental(true);
+        validatorSet.validate();
+
+        // The member is validated on its own after the input changed, which completes the round.
+        firstInput = "apple";
+        asyncValidator.validate();
+        asyncValidator.criteria.asyncConditionComplete(asyncValidator.criteria.getGeneration(), false);
+
+        firstInput = "kiwi";
+        validatorSet.validate();
+
+        assertEquals(0, validatorSet.getSkippedEvaluationCount());
+        assertTrue(asyncValidator.criteria.isEvaluating());
+    }
+
+    @Test
+    public void validate_IncrementalValidatorInvalidated_ValidatorEvaluated() throws Exception {
+        validatorsValidated = 0;
+        Validator<EditText> validator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        validatorsValidated++;
+
+                        return true;
+                    }
+                }));
+        validator.fingerprint(new Criteria.KeyExtractor<EditText>() {
+            @Override
+            public Object extractKey(EditText view) {
+                return firstInput;
+            }
+        });
+
+        ValidatorSet validatorSet = new ValidatorSet(validator);
+        validatorSet.incremental(true);
+        validatorSet.validate();
+        validatorSet.invalidate(validator);
+        validatorSet.validate();
+
+        assertEquals(2, validatorsValidated);
+        assertEquals(0, validatorSet.getSkippedEvaluationCount());
+    }
+
+    private Criteria.Condition<EditText> passes() {
+        return new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                return true;
+            }
+        };
+    }
+
+    private Criteria.Condition<EditText> fails() {
+        return new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                return false;
+            }
+        };
+    }
+}
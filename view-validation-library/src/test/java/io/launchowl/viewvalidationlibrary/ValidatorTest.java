@@ -12,6 +12,11 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import io.launchowl.viewvalidationlibrary.Criteria;
 import io.launchowl.viewvalidationlibrary.Observer;
 import io.launchowl.viewvalidationlibrary.Validator;
@@ -74,6 +79,194 @@ public class ValidatorTest {
         validator.validate();
     }
 
+    int evaluations = 0;
+    @Test
+    public void validateDebounced_BurstOfRequests_OneEvaluation() {
+        FakeScheduler scheduler = new FakeScheduler();
+        Validator validator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        evaluations++;
+
+                        return true;
+                    }
+                })
+        );
+        validator.setScheduler(scheduler);
+
+        validator.validateDebounced(250, TimeUnit.MILLISECONDS);
+        scheduler.advanceBy(100);
+        validator.validateDebounced(250, TimeUnit.MILLISECONDS);
+        scheduler.advanceBy(100);
+        validator.validateDebounced(250, TimeUnit.MILLISECONDS);
+
+        assertEquals(0, evaluations);
+
+        scheduler.advanceBy(250);
+
+        assertEquals(1, evaluations);
+        assertEquals(2, validator.getElidedEvaluationCount());
+    }
+
+    @Test
+    public void cancelValidation_DebouncedRequestPending_NoEvaluation() {
+        FakeScheduler scheduler = new FakeScheduler();
+        Validator validator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        evaluations++;
+
+                        return true;
+                    }
+                })
+        );
+        validator.setScheduler(scheduler);
+
+        validator.validateDebounced(250, TimeUnit.MILLISECONDS);
+        validator.cancelValidation();
+        scheduler.advanceBy(250);
+
+        assertEquals(0, evaluations);
+        assertEquals(0, scheduler.pendingCount());
+    }
+
+    @Test
+    public void validate_DebouncedRequestPending_RequestReplaced() {
+        FakeScheduler scheduler = new FakeScheduler();
+        Validator validator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        evaluations++;
+
+                        return true;
+                    }
+                })
+        );
+        validator.setScheduler(scheduler);
+
+        validator.validateDebounced(250, TimeUnit.MILLISECONDS);
+        validator.validate();
+        scheduler.advanceBy(250);
+
+        assertEquals(1, evaluations);
+        assertEquals(0, scheduler.pendingCount());
+        assertEquals(1, validator.getElidedEvaluationCount());
+    }
+
+    int notifications = 0;
+    @Test
+    public void distinctUntilChanged_SameResultTwice_OneNotification() {
+        Validator validator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        return true;
+                    }
+                })
+        );
+        validator.distinctUntilChanged(true);
+        validator.observe(countingObserver);
+
+        validator.validate();
+        validator.validate();
+
+        assertEquals(1, notifications);
+        assertEquals(1, validator.getSuppressedNotificationCount());
+    }
+
+    @Test
+    public void distinctUntilChanged_CancelledBetweenResults_BothDelivered() {
+        Validator validator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        return true;
+                    }
+                })
+        );
+        validator.distinctUntilChanged(true);
+        validator.observe(countingObserver);
+
+        validator.validate();
+        validator.cancelValidation();
+        validator.validate();
+
+        assertEquals(2, notifications);
+        assertEquals(0, validator.getSuppressedNotificationCount());
+    }
+
+    @Test
+    public void validate_SecondConditionFails_FailedConditionBitDelivered() {
+        Validator validator = new Validator<EditText>(new Criteria<EditText>(mockEditText)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        return true;
+                    }
+                })
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        return false;
+                    }
+                })
+        );
+        validator.observe(recordingObserver);
+
+        validator.validate();
+
+        assertEquals(Arrays.asList(Validator.ValidationResult.Invalid), results);
+        assertEquals(2L, failedConditions);
+    }
+
+    @Test
+    public void notifyPending_AsyncConditionRunning_PendingThenResultDelivered() {
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .asyncTest(new Criteria.AsyncCondition<EditText>() {
+                    @Override
+                    protected void evaluate(EditText view) {
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+                    }
+                })
+                .executeOn(new AsyncConditionExecutor(1, 1, AsyncConditionExecutor.RejectionPolicy.Abort));
+        Validator validator = new Validator<>(criteria);
+        validator.notifyPending(true);
+        validator.observe(recordingObserver);
+
+        validator.validate();
+        criteria.asyncConditionComplete(criteria.getGeneration(), true);
+
+        assertEquals(Arrays.asList(Validator.ValidationResult.Pending, Validator.ValidationResult.Valid), results);
+    }
+
+    private final List<Validator.ValidationResult> results = new ArrayList<>();
+    private long failedConditions;
+
+    private Observer recordingObserver = new Observer<Button>(mockButton1) {
+        @Override
+        protected void onValidationComplete(Button button, Validator.ValidationResult validationResult) {
+        }
+
+        @Override
+        protected void onValidationComplete(Button button, Validator.ValidationResult validationResult, long failed) {
+            results.add(validationResult);
+            failedConditions = failed;
+        }
+    };
+
+    private Observer countingObserver = new Observer<Button>(mockButton1) {
+        @Override
+        public void onValidationComplete(Button button, Validator.ValidationResult validationResult) {
+            notifications++;
+        }
+    };
+
     private Observer mockButton1Observer = new Observer<Button>(mockButton1) {
         @Override
         public void onValidationComplete(Button button, Validator.ValidationResult validationResult) {
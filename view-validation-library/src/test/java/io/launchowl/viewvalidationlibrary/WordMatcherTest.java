@@ -0,0 +1,56 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WordMatcherTest {
+    @Test
+    public void containsAny_OverlappingWords_FollowsFailureLinks() {
+        WordMatcher wordMatcher = new WordMatcher(Arrays.asList("he", "she", "his", "hers"));
+
+        assertTrue(wordMatcher.containsAny("ushers"));
+        assertTrue(wordMatcher.containsAny("ahishe"));
+        assertFalse(wordMatcher.containsAny("hsihx"));
+    }
+
+    @Test
+    public void containsAny_WordEndsInsideLongerWord_Matches() {
+        WordMatcher wordMatcher = new WordMatcher(Arrays.asList("abcd", "bc"));
+
+        assertTrue(wordMatcher.containsAny("xabcx"));
+    }
+
+    @Test
+    public void containsAny_MixedCase_IgnoresCase() {
+        WordMatcher wordMatcher = new WordMatcher(Arrays.asList("Kiwi"));
+
+        assertTrue(wordMatcher.containsAny("bigKIWIfan"));
+    }
+
+    @Test
+    public void containsAny_NoWords_NeverMatches() {
+        WordMatcher wordMatcher = new WordMatcher(Arrays.asList("", null));
+
+        assertFalse(wordMatcher.containsAny("anything"));
+        assertEquals(1, wordMatcher.getStateCount());
+    }
+
+    @Test
+    public void containsAny_ThousandsOfWords_MatchesOnlyListedWords() {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            words.add("w" + i + "x");
+        }
+        WordMatcher wordMatcher = new WordMatcher(words);
+
+        assertTrue(wordMatcher.containsAny("prefix-w4999x-suffix"));
+        assertFalse(wordMatcher.containsAny("prefix-w5000x-suffix"));
+    }
+}